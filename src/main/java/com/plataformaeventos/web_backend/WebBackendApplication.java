@@ -4,6 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Punto de entrada principal de la aplicación Spring Boot.
@@ -11,8 +12,10 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
  * Se configuran explícitamente:
  *  - El paquete donde se encuentran las entidades JPA.
  *  - El paquete donde se encuentran los repositorios JPA.
+ *  - Las tareas programadas (refresco de índices en memoria).
  */
 @SpringBootApplication
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.plataformaeventos.web_backend.repository")
 @EntityScan(basePackages = "com.plataformaeventos.web_backend.model")
 public class WebBackendApplication {
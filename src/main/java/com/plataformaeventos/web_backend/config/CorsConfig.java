@@ -29,7 +29,7 @@ public class CorsConfig {
 
         // Headers permitidos
         config.setAllowedHeaders(
-                List.of("Authorization", "Content-Type", "Accept")
+                List.of("Authorization", "Content-Type", "Accept", "Idempotency-Key")
         );
 
         // Permitir credenciales si en algún momento usamos cookies
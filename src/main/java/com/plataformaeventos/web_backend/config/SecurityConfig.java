@@ -47,6 +47,13 @@ public class SecurityConfig {
 
                 // [NUEVO] Permitir que CUALQUIERA vea los espacios y su detalle
                 .requestMatchers(HttpMethod.GET, "/api/espacios", "/api/espacios/**").permitAll()
+
+                // Cotizar no crea nada: también disponible para invitados
+                .requestMatchers(HttpMethod.POST, "/api/reservas/cotizar", "/api/reservas/cotizar/lote").permitAll()
+
+                // Cambios de ocupación en vivo: EventSource no envía el header Authorization,
+                // y la ocupación ya es pública en el detalle del espacio
+                .requestMatchers(HttpMethod.GET, "/api/reservas/ocupadas/*/eventos").permitAll()
                 
                 // --- RUTAS PRIVADAS ---
                 // Todo lo demás requiere autenticación
@@ -4,12 +4,19 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.plataformaeventos.web_backend.config.CustomUserDetails;
 import com.plataformaeventos.web_backend.dto.EspacioActualizarRequest;
 import com.plataformaeventos.web_backend.dto.EspacioCrearRequest;
+import com.plataformaeventos.web_backend.dto.EspacioListadoResponse;
 import com.plataformaeventos.web_backend.dto.EspacioResponse;
+import com.plataformaeventos.web_backend.dto.FormatoOcupacion;
+import com.plataformaeventos.web_backend.dto.MapaResponse;
+import com.plataformaeventos.web_backend.dto.ModoBusqueda;
+import com.plataformaeventos.web_backend.dto.PaginaCursorResponse;
+import com.plataformaeventos.web_backend.dto.VentanaFlexible;
 import com.plataformaeventos.web_backend.service.EspacioService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -20,6 +27,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -93,12 +102,17 @@ public class EspacioController {
     }
 
     @GetMapping
-    public ResponseEntity<Page<EspacioResponse>> listar(
+    public ResponseEntity<Page<EspacioListadoResponse>> listar(
             @RequestParam(required = false) Long usuarioId,
             @RequestParam(required = false) String busqueda,
+            @RequestParam(defaultValue = "TEXTO") ModoBusqueda modoBusqueda,
             @RequestParam(required = false) String tipo,
             @RequestParam(required = false) String servicios,
             @RequestParam(required = false) Integer capacidadMinima,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) VentanaFlexible ventana,
+            @RequestParam(required = false) Integer meses,
             Pageable pageable) {
         Long usuarioNavegandoId = null;
         try {
@@ -106,12 +120,73 @@ public class EspacioController {
         } catch (AccessDeniedException e) {
             // Usuario no autenticado, es válido para esta ruta
         }
-        return ResponseEntity.ok(espacioService.listarEspacios(usuarioId, busqueda, tipo, servicios, capacidadMinima, usuarioNavegandoId, pageable));
+        return ResponseEntity.ok(espacioService.listarEspacios(usuarioId, busqueda, modoBusqueda, tipo, servicios, capacidadMinima, fechaInicio, fechaFin, ventana, meses, usuarioNavegandoId, pageable));
+    }
+
+    /**
+     * Catálogo público con paginación por cursor (scroll infinito).
+     * Evita el count y el OFFSET de la paginación clásica en páginas profundas.
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<PaginaCursorResponse<EspacioListadoResponse>> listarPorCursor(
+            @RequestParam(required = false) String busqueda,
+            @RequestParam(defaultValue = "TEXTO") ModoBusqueda modoBusqueda,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String servicios,
+            @RequestParam(required = false) Integer capacidadMinima,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limite) {
+        Long usuarioNavegandoId = null;
+        try {
+            usuarioNavegandoId = getAuthenticatedUserId();
+        } catch (AccessDeniedException e) {
+            // Usuario no autenticado, es válido para esta ruta
+        }
+        return ResponseEntity.ok(espacioService.listarEspaciosPorCursor(busqueda, modoBusqueda, tipo, servicios, capacidadMinima, fechaInicio, fechaFin, usuarioNavegandoId, after, limite));
+    }
+
+    /**
+     * Espacios publicados cerca de un punto, ordenados por distancia.
+     */
+    @GetMapping("/cercanos")
+    public ResponseEntity<List<EspacioListadoResponse>> buscarCercanos(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(defaultValue = "10") double radioKm,
+            @RequestParam(defaultValue = "50") int limite) {
+        Long usuarioNavegandoId = null;
+        try {
+            usuarioNavegandoId = getAuthenticatedUserId();
+        } catch (AccessDeniedException e) {
+            // Usuario no autenticado, es válido para esta ruta
+        }
+        return ResponseEntity.ok(espacioService.buscarCercanos(lat, lon, radioKm, limite, usuarioNavegandoId));
+    }
+
+    /**
+     * Contenido del mapa para el área visible (bbox) y el nivel de zoom:
+     * clusters pre-agregados con zoom bajo, pines individuales con zoom alto.
+     */
+    @GetMapping("/mapa")
+    public ResponseEntity<MapaResponse> obtenerMapa(
+            @RequestParam double sur,
+            @RequestParam double oeste,
+            @RequestParam double norte,
+            @RequestParam double este,
+            @RequestParam int zoom) {
+        return ResponseEntity.ok(espacioService.obtenerMapa(sur, oeste, norte, este, zoom));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<EspacioResponse> obtenerPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(espacioService.obtenerPorId(id));
+    public ResponseEntity<EspacioResponse> obtenerPorId(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "DIAS") FormatoOcupacion formatoOcupacion
+    ) {
+        return ResponseEntity.ok(espacioService.obtenerPorId(id, desde, hasta, formatoOcupacion));
     }
 
     @DeleteMapping("/{id}")
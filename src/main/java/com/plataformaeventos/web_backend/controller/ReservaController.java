@@ -1,5 +1,10 @@
 package com.plataformaeventos.web_backend.controller;
 
+import com.plataformaeventos.web_backend.dto.CotizacionLoteRequest;
+import com.plataformaeventos.web_backend.dto.CotizacionLoteResponse;
+import com.plataformaeventos.web_backend.dto.CotizacionRequest;
+import com.plataformaeventos.web_backend.dto.FranjasHorariasResponse;
+import com.plataformaeventos.web_backend.dto.CotizacionResponse;
 import com.plataformaeventos.web_backend.dto.ReservaCrearRequest;
 import com.plataformaeventos.web_backend.dto.ReservaEspacioResponse;
 import com.plataformaeventos.web_backend.dto.ReservaResponse;
@@ -8,10 +13,13 @@ import com.plataformaeventos.web_backend.model.Usuario;
 import com.plataformaeventos.web_backend.repository.UsuarioRepository;
 import com.plataformaeventos.web_backend.service.ReservaService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,9 +30,16 @@ import java.util.List;
  *
  * Endpoints actuales:
  *  - POST /api/reservas                 → creación de una reserva.
+ *  - POST /api/reservas/dias            → varios días sueltos de un espacio por día.
+ *  - POST /api/reservas/retener         → retención PENDIENTE con vencimiento (checkout).
+ *  - PATCH /api/reservas/{id}/confirmar → confirma una retención vigente.
+ *  - POST /api/reservas/cotizar         → precio detallado sin crear la reserva.
+ *  - POST /api/reservas/cotizar/lote    → disponibilidad y precio de varios espacios.
  *  - GET  /api/reservas/usuario/{id}    → reservas de un usuario.
  *  - GET  /api/reservas/espacio/{id}    → reservas de un espacio.
  *  - GET  /api/reservas/ocupadas/{id}   → fechas ocupadas de un espacio.
+ *  - GET  /api/reservas/ocupadas/{id}/eventos → cambios de ocupación en vivo (SSE).
+ *  - GET  /api/reservas/franjas/{id}    → franjas horarias de un espacio por hora.
  */
 @RestController
 @RequestMapping("/api/reservas")
@@ -37,14 +52,57 @@ public class ReservaController {
     /**
      * Crea una nueva reserva para un espacio determinado.
      *
+     * Con el header Idempotency-Key (ej: un UUID por intento de compra), los reintentos
+     * con la misma clave devuelven la misma reserva sin crear otra ni cobrar de nuevo.
+     *
      * @param request datos de creación de la reserva.
      * @return reserva creada con código HTTP 201.
      */
     @PostMapping
     public ResponseEntity<ReservaResponse> crear(
+            @RequestBody ReservaCrearRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia,
+            Authentication authentication
+    ) {
+        asignarUsuarioAutenticado(request, authentication);
+
+        ReservaResponse creada = reservaService.crearReserva(request, claveIdempotencia);
+        return ResponseEntity.status(HttpStatus.CREATED).body(creada);
+    }
+
+    /**
+     * Reserva varios días sueltos (request.dias) de un espacio POR_DIA en una sola operación:
+     * se confirman todos o ninguno, con un único pago.
+     *
+     * @return una reserva por día, con código HTTP 201.
+     */
+    @PostMapping("/dias")
+    public ResponseEntity<List<ReservaResponse>> crearPorDias(
+            @RequestBody ReservaCrearRequest request,
+            Authentication authentication
+    ) {
+        asignarUsuarioAutenticado(request, authentication);
+
+        List<ReservaResponse> creadas = reservaService.crearReservaPorDias(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(creadas);
+    }
+
+    /**
+     * Retiene las fechas durante el checkout. La reserva queda PENDIENTE hasta
+     * que se confirma o vence (expiraEn en la respuesta).
+     */
+    @PostMapping("/retener")
+    public ResponseEntity<ReservaResponse> retener(
             @RequestBody ReservaCrearRequest request,
             Authentication authentication
     ) {
+        asignarUsuarioAutenticado(request, authentication);
+
+        ReservaResponse retenida = reservaService.retenerReserva(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(retenida);
+    }
+
+    private void asignarUsuarioAutenticado(ReservaCrearRequest request, Authentication authentication) {
         // Lógica para determinar si es usuario registrado o invitado
         if (authentication != null && authentication.isAuthenticated() && 
            !authentication.getPrincipal().equals("anonymousUser")) {
@@ -59,9 +117,24 @@ public class ReservaController {
         
         // Si no hay usuario autenticado, request.getUsuarioId() vendrá null
         // y el servicio deberá manejar la lógica de invitado.
+    }
 
-        ReservaResponse creada = reservaService.crearReserva(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(creada);
+    /**
+     * Cotiza una reserva (alquiler, limpieza y depósito) sin crearla.
+     * Pensado para recalcular el precio mientras el usuario elige fechas.
+     */
+    @PostMapping("/cotizar")
+    public CotizacionResponse cotizar(@RequestBody CotizacionRequest request) {
+        return reservaService.cotizar(request);
+    }
+
+    /**
+     * Disponibilidad y precio total de varios espacios para el mismo rango de fechas.
+     * Reemplaza las consultas por tarjeta en una página de resultados.
+     */
+    @PostMapping("/cotizar/lote")
+    public List<CotizacionLoteResponse> cotizarLote(@RequestBody CotizacionLoteRequest request) {
+        return reservaService.cotizarLote(request);
     }
 
     /**
@@ -90,11 +163,49 @@ public class ReservaController {
 
     /**
      * Devuelve la lista de fechas ocupadas para un espacio.
-     * Útil para bloquear días en el calendario del frontend.
+     * Útil para bloquear días en el calendario del frontend: conviene pedir sólo
+     * los meses visibles con desde/hasta (por defecto, desde hoy en adelante).
      */
     @GetMapping("/ocupadas/{espacioId}")
-    public List<LocalDate> obtenerFechasOcupadas(@PathVariable Long espacioId) {
-        return reservaService.obtenerFechasOcupadas(espacioId);
+    public List<LocalDate> obtenerFechasOcupadas(
+            @PathVariable Long espacioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        return reservaService.obtenerFechasOcupadas(espacioId, desde, hasta);
+    }
+
+    /**
+     * Canal Server-Sent Events con los cambios de ocupación del espacio (evento "ocupacion").
+     * Reemplaza el sondeo periódico de /ocupadas mientras el calendario está abierto:
+     * se carga /ocupadas una vez y luego se aplican los cambios que llegan.
+     */
+    @GetMapping(value = "/ocupadas/{espacioId}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirOcupacion(@PathVariable Long espacioId) {
+        return reservaService.suscribirOcupacion(espacioId);
+    }
+
+    /**
+     * Devuelve las franjas horarias (libres y ocupadas) de un espacio que se alquila
+     * por hora, para un rango de días. Evita que el frontend pruebe horarios
+     * intentando reservar.
+     */
+    @GetMapping("/franjas/{espacioId}")
+    public FranjasHorariasResponse obtenerFranjas(
+            @PathVariable Long espacioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "30") int minutos
+    ) {
+        return reservaService.obtenerFranjas(espacioId, desde, hasta, minutos);
+    }
+
+    @PatchMapping("/{id}/confirmar")
+    public ReservaResponse confirmarReserva(
+            @PathVariable Long id,
+            @RequestParam Long usuarioId
+    ) {
+        return reservaService.confirmarReserva(id, usuarioId);
     }
 
     @PatchMapping("/{id}/cancelar")
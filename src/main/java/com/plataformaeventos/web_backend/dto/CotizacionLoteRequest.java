@@ -0,0 +1,20 @@
+package com.plataformaeventos.web_backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de entrada para cotizar varios espacios en el mismo rango
+ * (por ejemplo, todas las tarjetas de una página de resultados).
+ */
+@Data
+public class CotizacionLoteRequest {
+
+    private List<Long> espacioIds;
+
+    private LocalDateTime fechaInicio;
+
+    private LocalDateTime fechaFin;
+}
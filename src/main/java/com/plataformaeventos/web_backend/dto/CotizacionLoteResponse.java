@@ -0,0 +1,20 @@
+package com.plataformaeventos.web_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Disponibilidad y precio total de un espacio dentro de una cotización por lote.
+ */
+@Data
+@Builder
+public class CotizacionLoteResponse {
+
+    private Long espacioId;
+
+    private boolean disponible;
+
+    private BigDecimal total; // Null si el espacio no existe o no está publicado
+}
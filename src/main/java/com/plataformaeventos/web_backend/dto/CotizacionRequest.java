@@ -0,0 +1,18 @@
+package com.plataformaeventos.web_backend.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de entrada para cotizar una reserva sin crearla.
+ */
+@Data
+public class CotizacionRequest {
+
+    private Long espacioId;
+
+    private LocalDateTime fechaInicio;
+
+    private LocalDateTime fechaFin;
+}
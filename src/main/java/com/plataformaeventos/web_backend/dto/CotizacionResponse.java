@@ -0,0 +1,44 @@
+package com.plataformaeventos.web_backend.dto;
+
+import com.plataformaeventos.web_backend.model.CobroDeposito;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO de salida con el detalle de precio de una reserva.
+ */
+@Data
+@Builder
+public class CotizacionResponse {
+
+    private Long espacioId;
+
+    private LocalDateTime fechaInicio;
+
+    private LocalDateTime fechaFin;
+
+    private List<Linea> lineas;
+
+    private BigDecimal alquiler;
+
+    private BigDecimal cargoLimpieza;
+
+    private BigDecimal deposito;
+
+    private CobroDeposito cobroDeposito; // EFECTIVO: el depósito no se incluye en el total
+
+    private BigDecimal total;
+
+    @Data
+    @Builder
+    public static class Linea {
+        private String concepto;
+        private BigDecimal cantidad;
+        private BigDecimal precioUnitario;
+        private BigDecimal importe;
+    }
+}
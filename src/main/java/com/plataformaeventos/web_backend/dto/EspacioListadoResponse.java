@@ -0,0 +1,31 @@
+package com.plataformaeventos.web_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO liviano para las tarjetas del listado de espacios.
+ *
+ * A diferencia de {@link EspacioResponse}, no incluye la configuración
+ * completa ni las fechas ocupadas: eso queda reservado al endpoint de detalle.
+ */
+@Data
+@Builder
+public class EspacioListadoResponse {
+    private Long id;
+    private String nombre;
+    private String tipo;
+    private BigDecimal precio;
+    private String unidadPrecio;
+    private String imagenUrl; // Primera imagen de la galería
+    private Integer capacidadMaxima;
+    private Double latitud;
+    private Double longitud;
+    private String estado;
+    private Double distanciaKm; // Sólo en búsquedas por cercanía
+    private LocalDate ventanaDesde; // Sólo en búsquedas con fechas flexibles: primera ventana libre
+    private LocalDate ventanaHasta;
+}
@@ -26,4 +26,19 @@ public class EspacioResponse {
     
     private EspacioConfig config;
     private List<String> fechasOcupadas;
+
+    /**
+     * Sólo con formatoOcupacion=RANGOS (en ese caso fechasOcupadas va vacío).
+     */
+    private List<RangoOcupado> rangosOcupados;
+
+    /**
+     * Días ocupados consecutivos, ambos extremos incluidos (yyyy-MM-dd).
+     */
+    @Data
+    @Builder
+    public static class RangoOcupado {
+        private String desde;
+        private String hasta;
+    }
 }
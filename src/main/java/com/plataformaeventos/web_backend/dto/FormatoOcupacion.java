@@ -0,0 +1,17 @@
+package com.plataformaeventos.web_backend.dto;
+
+/**
+ * Define cómo se envían los días ocupados en el detalle de un espacio.
+ */
+public enum FormatoOcupacion {
+    /**
+     * Un "yyyy-MM-dd" por día ocupado en fechasOcupadas (formato original).
+     */
+    DIAS,
+
+    /**
+     * Días ocupados consecutivos agrupados en rangosOcupados [desde, hasta].
+     * Una estadía de un mes ocupa un solo elemento en lugar de treinta.
+     */
+    RANGOS
+}
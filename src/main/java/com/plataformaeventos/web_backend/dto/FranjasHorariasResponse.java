@@ -0,0 +1,35 @@
+package com.plataformaeventos.web_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Disponibilidad por franjas horarias de un espacio que se alquila por hora.
+ */
+@Data
+@Builder
+public class FranjasHorariasResponse {
+    private Long espacioId;
+    private int minutosPorFranja;
+    private List<Dia> dias;
+
+    @Data
+    @Builder
+    public static class Dia {
+        private LocalDate fecha;
+        private boolean bloqueado; // Día bloqueado por el propietario: sin franjas
+        private List<Franja> franjas;
+    }
+
+    @Data
+    @Builder
+    public static class Franja {
+        private LocalDateTime inicio;
+        private LocalDateTime fin;
+        private boolean disponible;
+    }
+}
@@ -0,0 +1,39 @@
+package com.plataformaeventos.web_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Contenido del mapa para un área visible y un nivel de zoom.
+ *
+ * Con zoom bajo se devuelven clusters pre-agregados por tile;
+ * con zoom alto, pines individuales.
+ */
+@Data
+@Builder
+public class MapaResponse {
+    private int zoom;
+    private List<Cluster> clusters;
+    private List<Pin> pines;
+
+    @Data
+    @Builder
+    public static class Cluster {
+        private double latitud;  // Centroide de los espacios del tile
+        private double longitud;
+        private int cantidad;
+        private BigDecimal precioMinimo;
+    }
+
+    @Data
+    @Builder
+    public static class Pin {
+        private Long id;
+        private double latitud;
+        private double longitud;
+        private BigDecimal precio;
+    }
+}
@@ -0,0 +1,19 @@
+package com.plataformaeventos.web_backend.dto;
+
+/**
+ * Define cómo se interpreta el parámetro "busqueda" del listado de espacios.
+ */
+public enum ModoBusqueda {
+    /**
+     * Búsqueda por palabras (sin tildes, singular/plural indistinto) sobre nombre,
+     * tipo y descripción. Sin coincidencias, el resultado es vacío: la búsqueda
+     * tolerante sólo se usa cuando el cliente la pide explícitamente.
+     */
+    TEXTO,
+
+    /**
+     * Búsqueda tolerante a errores de tipeo por similitud de trigramas
+     * sobre nombre, tipo y dirección (ej: "kincho" → "Quincho").
+     */
+    TOLERANTE
+}
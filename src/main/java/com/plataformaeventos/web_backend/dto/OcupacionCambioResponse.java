@@ -0,0 +1,27 @@
+package com.plataformaeventos.web_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Cambio de ocupación de un espacio, enviado por SSE a los calendarios abiertos.
+ *
+ * El cliente reemplaza los días entre desde y hasta por fechasOcupadas: el mensaje
+ * trae el estado resultante de esos días, así que aplicarlo dos veces no cambia nada.
+ */
+@Data
+@Builder
+public class OcupacionCambioResponse {
+
+    private Long espacioId;
+
+    private Long reservaId;
+
+    private String desde; // yyyy-MM-dd
+
+    private String hasta; // yyyy-MM-dd, incluido
+
+    private List<String> fechasOcupadas; // Días de [desde, hasta] que siguen ocupados
+}
@@ -0,0 +1,26 @@
+package com.plataformaeventos.web_backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida con paginación por cursor (keyset).
+ *
+ * No incluye el total de elementos: calcularlo obligaría a ejecutar
+ * un count completo en cada página, que es justamente lo que se evita.
+ */
+@Data
+@Builder
+public class PaginaCursorResponse<T> {
+    private List<T> contenido;
+
+    /**
+     * Cursor opaco para pedir la página siguiente (parámetro "after").
+     * Es null cuando no hay más resultados.
+     */
+    private String siguienteCursor;
+
+    private boolean hayMas;
+}
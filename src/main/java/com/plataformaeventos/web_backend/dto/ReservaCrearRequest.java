@@ -2,7 +2,9 @@ package com.plataformaeventos.web_backend.dto;
 
 import lombok.Data;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO de entrada para la creación de reservas.
@@ -35,6 +37,12 @@ public class ReservaCrearRequest {
      */
     private LocalDateTime fechaFin;
 
+    /**
+     * Días sueltos a reservar (sólo espacios POR_DIA, endpoint /api/reservas/dias).
+     * Cada día va de la hora de check-in a la de check-out del espacio.
+     */
+    private List<LocalDate> dias;
+
     // --- NUEVOS CAMPOS PARA INVITADOS ---
     private String nombreInvitado;
     private String emailInvitado;
@@ -29,4 +29,6 @@ public class ReservaResponse {
     private EstadoReserva estado;
 
     private LocalDateTime fechaCreacion;
+
+    private LocalDateTime expiraEn; // Sólo en retenciones PENDIENTE
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.plataformaeventos.web_backend.dto;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Patrones de búsqueda con fechas flexibles: el espacio debe tener al menos
+ * una ventana libre de {@link #getDias()} días consecutivos que empiece en
+ * alguno de los días de {@link #getDiasDeInicio()}.
+ */
+public enum VentanaFlexible {
+    /**
+     * Cualquier sábado libre.
+     */
+    SABADO(1, EnumSet.of(DayOfWeek.SATURDAY)),
+
+    /**
+     * Dos días seguidos libres, en cualquier momento de la semana.
+     */
+    DOS_DIAS(2, EnumSet.allOf(DayOfWeek.class)),
+
+    /**
+     * Un fin de semana completo (sábado y domingo) libre.
+     */
+    FIN_DE_SEMANA(2, EnumSet.of(DayOfWeek.SATURDAY));
+
+    private final int dias;
+    private final Set<DayOfWeek> diasDeInicio;
+
+    VentanaFlexible(int dias, Set<DayOfWeek> diasDeInicio) {
+        this.dias = dias;
+        this.diasDeInicio = diasDeInicio;
+    }
+
+    public int getDias() {
+        return dias;
+    }
+
+    public Set<DayOfWeek> getDiasDeInicio() {
+        return diasDeInicio;
+    }
+}
@@ -0,0 +1,9 @@
+package com.plataformaeventos.web_backend.event;
+
+/**
+ * Evento publicado cuando un espacio se elimina definitivamente.
+ *
+ * @param espacioId identificador del espacio eliminado.
+ */
+public record EspacioEliminadoEvent(Long espacioId) {
+}
@@ -0,0 +1,14 @@
+package com.plataformaeventos.web_backend.event;
+
+import com.plataformaeventos.web_backend.model.Espacio;
+
+/**
+ * Evento publicado cuando un espacio se crea o se modifica (datos, estado o imágenes).
+ *
+ * Los índices en memoria lo escuchan después del commit para mantenerse
+ * sincronizados con la base de datos.
+ *
+ * @param espacio espacio ya persistido.
+ */
+public record EspacioModificadoEvent(Espacio espacio) {
+}
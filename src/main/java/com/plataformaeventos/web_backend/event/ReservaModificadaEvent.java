@@ -0,0 +1,14 @@
+package com.plataformaeventos.web_backend.event;
+
+import com.plataformaeventos.web_backend.model.Reserva;
+
+/**
+ * Evento publicado cuando una reserva se crea o cambia de estado (por ejemplo, al cancelarse).
+ *
+ * Los índices de ocupación lo escuchan después del commit para mantenerse
+ * sincronizados con la base de datos.
+ *
+ * @param reserva reserva ya persistida.
+ */
+public record ReservaModificadaEvent(Reserva reserva) {
+}
@@ -0,0 +1,16 @@
+package com.plataformaeventos.web_backend.event;
+
+import com.plataformaeventos.web_backend.model.Reserva;
+
+/**
+ * Evento publicado cuando llega, por el canal entre réplicas, una reserva que otra
+ * réplica creó o modificó. La reserva ya está confirmada en la base de datos
+ * (se vuelve a leer al recibir el aviso).
+ *
+ * Complementa a {@link ReservaModificadaEvent}, que sólo se publica en la réplica
+ * que hizo el cambio.
+ *
+ * @param reserva reserva leída de la base de datos.
+ */
+public record ReservaSincronizadaEvent(Reserva reserva) {
+}
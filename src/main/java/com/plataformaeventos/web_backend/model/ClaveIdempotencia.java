@@ -0,0 +1,56 @@
+package com.plataformaeventos.web_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta guardada de una operación enviada con el header Idempotency-Key.
+ *
+ * Si el cliente reintenta con la misma clave, se devuelve esta respuesta sin volver
+ * a ejecutar la operación (ni crear otra reserva u otro pago). Se guarda en la misma
+ * transacción que la operación y se borra al vencer.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "claves_idempotencia", indexes = {
+        @Index(name = "idx_claves_idempotencia_expira", columnList = "expira_en")
+})
+public class ClaveIdempotencia {
+
+    /**
+     * Operación y clave del cliente, ej: "crear-reserva:3f0c1e…".
+     */
+    @Id
+    @Column(length = 200)
+    private String id;
+
+    /**
+     * Usuario que envió la operación (null para invitados).
+     * Una clave no puede reutilizarse desde otra cuenta.
+     */
+    @Column(name = "usuario_id")
+    private Long usuarioId;
+
+    /**
+     * SHA-256 del cuerpo de la solicitud, para rechazar la misma clave con otros datos.
+     */
+    @Column(nullable = false, length = 64)
+    private String huella;
+
+    /**
+     * Respuesta serializada en JSON.
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String respuesta;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+}
@@ -18,7 +18,10 @@ import java.util.List;
 @AllArgsConstructor
 @ToString(exclude = {"reservas", "imagenes"})
 @Entity
-@Table(name = "espacios")
+@Table(name = "espacios", indexes = {
+        // Soporta la paginación por cursor del catálogo público
+        @Index(name = "idx_espacios_estado_creacion", columnList = "estado, fecha_creacion, id")
+})
 public class Espacio {
 
     @Id
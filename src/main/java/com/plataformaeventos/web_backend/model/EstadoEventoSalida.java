@@ -0,0 +1,14 @@
+package com.plataformaeventos.web_backend.model;
+
+/**
+ * Estado de un evento de la bandeja de salida.
+ *
+ * PENDIENTE → Esperando ser procesado (o reintentado).
+ * FALLIDO → Agotó los reintentos; queda para revisión manual.
+ *
+ * Los eventos procesados con éxito se borran.
+ */
+public enum EstadoEventoSalida {
+    PENDIENTE,
+    FALLIDO
+}
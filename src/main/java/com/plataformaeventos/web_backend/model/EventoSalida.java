@@ -0,0 +1,65 @@
+package com.plataformaeventos.web_backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de la bandeja de salida (transactional outbox), que funciona también como
+ * cola de trabajos persistente: tipo con su manejador, prioridad, ejecución diferida,
+ * reintentos con espera exponencial y FALLIDO como cola de descarte.
+ *
+ * Si se inserta en la misma transacción que la operación que lo origina (por ejemplo,
+ * la reserva), existe si y sólo si la operación se confirmó. Un despachador
+ * en segundo plano lo procesa después.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "eventos_salida")
+public class EventoSalida {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private TipoEventoSalida tipo;
+
+    /**
+     * Datos del evento en JSON (ver el manejador de cada tipo).
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EstadoEventoSalida estado;
+
+    /**
+     * Entre los eventos listos, se toman primero los de mayor prioridad.
+     */
+    @ColumnDefault("0") // Para agregar la columna a una tabla con filas
+    @Column(nullable = false)
+    private int prioridad;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    /**
+     * No se procesa antes de este momento (espera entre reintentos).
+     */
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 1000)
+    private String ultimoError;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+}
@@ -17,6 +17,11 @@ public class ImagenEspacio {
     @Column(nullable = false)
     private String url;
 
+    // Id de la imagen en Cloudinary, para eliminarla cuando sale de la galería
+    // (null en las imágenes subidas antes de guardarlo)
+    @Column(name = "public_id")
+    private String publicId;
+
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "espacio_id", nullable = false)
@@ -9,6 +9,10 @@ import java.time.LocalDateTime;
 /**
  * Entidad que representa una reserva de un espacio
  * para un rango de fecha y hora determinados.
+ *
+ * En la base de datos, la columna generada {@code periodo} (tsrange) y la
+ * restricción de exclusión {@code reservas_sin_solapamiento} (ver schema.sql)
+ * impiden que dos reservas no canceladas del mismo espacio se solapen.
  */
 @Getter
 @Setter
@@ -17,7 +21,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @ToString
 @Entity
-@Table(name = "reservas")
+@Table(name = "reservas", indexes = {
+        // Solapamientos y ocupación por espacio: fecha_fin > inicio acota a las reservas vigentes
+        @Index(name = "idx_reservas_espacio_fin", columnList = "espacio_id, fecha_fin, fecha_inicio")
+})
 public class Reserva {
 
     /**
@@ -74,6 +81,14 @@ public class Reserva {
     @Column(name = "fecha_creacion", nullable = false)
     private LocalDateTime fechaCreacion;
 
+    /**
+     * Vencimiento de una retención (reserva PENDIENTE durante el checkout).
+     * Pasado este momento, el barrido de retenciones la cancela y libera las fechas.
+     * Null en las reservas confirmadas.
+     */
+    @Column(name = "expira_en")
+    private LocalDateTime expiraEn;
+
     // --- CAMPOS PARA INVITADOS (SIN CUENTA) ---
     private String nombreInvitado;
     private String emailInvitado;
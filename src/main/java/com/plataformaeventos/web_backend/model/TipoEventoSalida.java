@@ -0,0 +1,16 @@
+package com.plataformaeventos.web_backend.model;
+
+/**
+ * Efectos secundarios que se procesan fuera de la transacción que los origina.
+ */
+public enum TipoEventoSalida {
+    /**
+     * Registrar el pago (simulado) de una reserva confirmada.
+     */
+    PAGO_RESERVA,
+
+    /**
+     * Eliminar de Cloudinary una imagen que ya no está en ningún espacio.
+     */
+    ELIMINAR_IMAGEN
+}
@@ -0,0 +1,22 @@
+package com.plataformaeventos.web_backend.repository;
+
+import com.plataformaeventos.web_backend.model.ClaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio de las respuestas guardadas por Idempotency-Key.
+ */
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, String> {
+
+    /**
+     * Borra las claves vencidas en una sola sentencia (usa idx_claves_idempotencia_expira).
+     */
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.expiraEn < :ahora")
+    int deleteVencidas(@Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,30 @@
+package com.plataformaeventos.web_backend.repository;
+
+import com.plataformaeventos.web_backend.model.EstadoEspacio;
+import com.plataformaeventos.web_backend.model.VisibilidadDireccion;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila cruda del listado de espacios, tal como sale de la consulta proyectada.
+ *
+ * Incluye los datos necesarios para aplicar la privacidad de la ubicación
+ * (propietario y visibilidad) antes de exponerla como DTO.
+ */
+public record EspacioListadoFila(
+        Long id,
+        String nombre,
+        String tipo,
+        BigDecimal precio,
+        String unidadPrecio,
+        Integer capacidadMaxima,
+        Double latitud,
+        Double longitud,
+        EstadoEspacio estado,
+        VisibilidadDireccion mostrarDireccionExacta,
+        Long propietarioId,
+        LocalDateTime fechaCreacion,
+        String imagenUrl
+) {
+}
@@ -4,15 +4,26 @@ import com.plataformaeventos.web_backend.model.Espacio;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface EspacioRepository extends JpaRepository<Espacio, Long>, JpaSpecificationExecutor<Espacio> {
+public interface EspacioRepository extends JpaRepository<Espacio, Long>, JpaSpecificationExecutor<Espacio>, EspacioRepositoryCustom {
 
-    // Consulta geoespacial usando Haversine formula
-    // 6371 es el radio de la tierra en km
-    @Query(value = "SELECT e FROM Espacio e WHERE " +
-            "(6371 * acos(cos(radians(:lat)) * cos(radians(e.latitud)) * cos(radians(e.longitud) - radians(:lon)) + sin(radians(:lat)) * sin(radians(e.latitud)))) < :distanciaKm")
-    List<Espacio> findCercanos(@Param("lat") double latitud, @Param("lon") double longitud, @Param("distanciaKm") double distanciaKm);
+    /**
+     * Ubicaciones de los espacios publicados con coordenadas, para reconstruir
+     * el índice espacial en memoria (las búsquedas por cercanía no recorren la tabla).
+     */
+    @Query("SELECT e.id AS id, e.latitud AS latitud, e.longitud AS longitud, e.precio AS precio, " +
+            "e.mostrarDireccionExacta AS mostrarDireccionExacta FROM Espacio e " +
+            "WHERE e.estado = com.plataformaeventos.web_backend.model.EstadoEspacio.PUBLICADO " +
+            "AND e.latitud IS NOT NULL AND e.longitud IS NOT NULL")
+    List<EspacioUbicacionProyeccion> findUbicacionesPublicadas();
+
+    /**
+     * Campos de texto de los espacios publicados, para reconstruir
+     * los índices de búsqueda en memoria.
+     */
+    @Query("SELECT e.id AS id, e.nombre AS nombre, e.descripcion AS descripcion, e.tipo AS tipo, e.direccion AS direccion " +
+            "FROM Espacio e WHERE e.estado = com.plataformaeventos.web_backend.model.EstadoEspacio.PUBLICADO")
+    List<EspacioTextoProyeccion> findTextosParaIndice();
 }
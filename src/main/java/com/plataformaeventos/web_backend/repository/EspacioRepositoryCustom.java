@@ -0,0 +1,64 @@
+package com.plataformaeventos.web_backend.repository;
+
+import com.plataformaeventos.web_backend.model.Espacio;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consultas de espacios que no pueden expresarse con métodos derivados.
+ */
+public interface EspacioRepositoryCustom {
+
+    /**
+     * Obtiene una página del listado de espacios en una única consulta,
+     * sin cargar la entidad completa ni sus colecciones.
+     *
+     * La primera imagen se resuelve con una subconsulta correlacionada,
+     * evitando la carga de la galería por cada fila.
+     *
+     * @param spec     filtros a aplicar.
+     * @param pageable paginación y orden solicitados.
+     * @return página de filas proyectadas.
+     */
+    Page<EspacioListadoFila> findListado(Specification<Espacio> spec, Pageable pageable);
+
+    /**
+     * Igual que {@link #findListado(Specification, Pageable)}, restringido a los espacios
+     * de {@code idsIncluidos} y sin los de {@code idsExcluidos}.
+     *
+     * Los ids se envían como un único parámetro de tipo arreglo
+     * ({@code array_position(?, id)}) y no como una lista IN con un parámetro
+     * por id, que con miles de ids supera el límite de parámetros del protocolo de PostgreSQL.
+     * Si el pageable no trae orden, las filas salen en el orden de {@code idsIncluidos}
+     * (por ejemplo, la relevancia de una búsqueda de texto) y se paginan en la base.
+     *
+     * @param spec          filtros a aplicar.
+     * @param idsIncluidos  ids de los únicos espacios que pueden aparecer, en orden (null para no restringir).
+     * @param idsExcluidos  ids de espacios que no deben aparecer (puede ser vacío).
+     * @param pageable      paginación y orden solicitados.
+     * @return página de filas proyectadas.
+     */
+    Page<EspacioListadoFila> findListado(Specification<Espacio> spec, List<Long> idsIncluidos, Collection<Long> idsExcluidos, Pageable pageable);
+
+    /**
+     * Obtiene el listado de espacios con paginación por cursor (keyset),
+     * ordenado por fecha de creación e id descendentes.
+     *
+     * No ejecuta count ni OFFSET: la posición se expresa como condición sobre
+     * el índice (estado, fecha_creacion, id), por lo que el costo no depende
+     * de la profundidad de la página.
+     *
+     * @param spec                filtros a aplicar.
+     * @param idsIncluidos        ids de los únicos espacios que pueden aparecer (null para no restringir).
+     * @param fechaCreacionCursor fecha de creación del último elemento ya entregado (null para la primera página).
+     * @param idCursor            id del último elemento ya entregado (null para la primera página).
+     * @param limite              cantidad máxima de filas a devolver.
+     * @return filas posteriores al cursor, en orden.
+     */
+    List<EspacioListadoFila> findListadoDespuesDe(Specification<Espacio> spec, List<Long> idsIncluidos, LocalDateTime fechaCreacionCursor, Long idCursor, int limite);
+}
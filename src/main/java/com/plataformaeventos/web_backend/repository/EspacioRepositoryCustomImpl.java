@@ -0,0 +1,231 @@
+package com.plataformaeventos.web_backend.repository;
+
+import com.plataformaeventos.web_backend.model.Espacio;
+import com.plataformaeventos.web_backend.model.EstadoEspacio;
+import com.plataformaeventos.web_backend.model.ImagenEspacio;
+import com.plataformaeventos.web_backend.model.VisibilidadDireccion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Implementación de {@link EspacioRepositoryCustom} usando la Criteria API,
+ * para poder reutilizar las mismas {@link Specification} del listado.
+ */
+public class EspacioRepositoryCustomImpl implements EspacioRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String PARAMETRO_IDS_INCLUIDOS = "idsIncluidos";
+    private static final String PARAMETRO_IDS_EXCLUIDOS = "idsExcluidos";
+
+    @Override
+    public Page<EspacioListadoFila> findListado(Specification<Espacio> spec, Pageable pageable) {
+        return findListado(spec, null, List.of(), pageable);
+    }
+
+    @Override
+    public Page<EspacioListadoFila> findListado(Specification<Espacio> spec, List<Long> idsIncluidos, Collection<Long> idsExcluidos, Pageable pageable) {
+        if (idsIncluidos != null && idsIncluidos.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Espacio> root = query.from(Espacio.class);
+
+        seleccionarColumnasListado(query, root, cb);
+
+        Expression<Integer> posicion = posicionIncluido(idsIncluidos, root, cb);
+        Predicate filtros = filtrar(spec, posicion, idsExcluidos, root, query, cb);
+        if (filtros != null) {
+            query.where(filtros);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        } else if (posicion != null) {
+            query.orderBy(cb.asc(posicion));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        vincularIds(typedQuery, idsIncluidos, idsExcluidos);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        List<EspacioListadoFila> filas = typedQuery.getResultList().stream()
+                .map(this::mapearFila)
+                .toList();
+
+        // El count sólo se ejecuta cuando no puede deducirse del tamaño de la página
+        return PageableExecutionUtils.getPage(filas, pageable, () -> contar(spec, idsIncluidos, idsExcluidos));
+    }
+
+    @Override
+    public List<EspacioListadoFila> findListadoDespuesDe(Specification<Espacio> spec, List<Long> idsIncluidos, LocalDateTime fechaCreacionCursor, Long idCursor, int limite) {
+        if (idsIncluidos != null && idsIncluidos.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Espacio> root = query.from(Espacio.class);
+
+        seleccionarColumnasListado(query, root, cb);
+
+        List<Predicate> condiciones = new ArrayList<>();
+        Predicate filtros = filtrar(spec, posicionIncluido(idsIncluidos, root, cb), List.of(), root, query, cb);
+        if (filtros != null) {
+            condiciones.add(filtros);
+        }
+
+        if (fechaCreacionCursor != null && idCursor != null) {
+            Path<LocalDateTime> fechaCreacion = root.get("fechaCreacion");
+            Path<Long> id = root.get("id");
+            // La cota "fecha <= cursor" es redundante, pero permite que el motor
+            // la use como condición de índice y arranque el recorrido en el cursor
+            condiciones.add(cb.lessThanOrEqualTo(fechaCreacion, fechaCreacionCursor));
+            condiciones.add(cb.or(
+                    cb.lessThan(fechaCreacion, fechaCreacionCursor),
+                    cb.and(cb.equal(fechaCreacion, fechaCreacionCursor), cb.lessThan(id, idCursor))
+            ));
+        }
+
+        query.where(condiciones.toArray(new Predicate[0]));
+        query.orderBy(cb.desc(root.get("fechaCreacion")), cb.desc(root.get("id")));
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        vincularIds(typedQuery, idsIncluidos, List.of());
+        return typedQuery
+                .setMaxResults(limite)
+                .getResultList().stream()
+                .map(this::mapearFila)
+                .toList();
+    }
+
+    private void seleccionarColumnasListado(CriteriaQuery<Tuple> query, Root<Espacio> root, CriteriaBuilder cb) {
+        query.multiselect(
+                root.get("id"),
+                root.get("nombre"),
+                root.get("tipo"),
+                root.get("precio"),
+                root.get("unidadPrecio"),
+                root.get("capacidadMaxima"),
+                root.get("latitud"),
+                root.get("longitud"),
+                root.get("estado"),
+                root.get("mostrarDireccionExacta"),
+                root.get("propietario").get("id"),
+                root.get("fechaCreacion"),
+                primeraImagen(query, root, cb)
+        );
+    }
+
+    /**
+     * Subconsulta correlacionada que devuelve la URL de la imagen con menor orden.
+     */
+    private Subquery<String> primeraImagen(CriteriaQuery<?> query, Root<Espacio> root, CriteriaBuilder cb) {
+        Subquery<Integer> menorOrden = query.subquery(Integer.class);
+        Root<ImagenEspacio> imagenOrden = menorOrden.from(ImagenEspacio.class);
+        menorOrden.select(cb.min(imagenOrden.<Integer>get("orden")))
+                .where(cb.equal(imagenOrden.get("espacio"), root));
+
+        Subquery<String> url = query.subquery(String.class);
+        Root<ImagenEspacio> imagen = url.from(ImagenEspacio.class);
+        // least() garantiza una sola fila aunque dos imágenes compartan el mismo orden
+        url.select(cb.least(imagen.<String>get("url")))
+                .where(
+                        cb.equal(imagen.get("espacio"), root),
+                        cb.equal(imagen.get("orden"), menorOrden)
+                );
+        return url;
+    }
+
+    private long contar(Specification<Espacio> spec, List<Long> idsIncluidos, Collection<Long> idsExcluidos) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Espacio> root = query.from(Espacio.class);
+        query.select(cb.count(root));
+
+        Predicate filtros = filtrar(spec, posicionIncluido(idsIncluidos, root, cb), idsExcluidos, root, query, cb);
+        if (filtros != null) {
+            query.where(filtros);
+        }
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        vincularIds(typedQuery, idsIncluidos, idsExcluidos);
+        return typedQuery.getSingleResult();
+    }
+
+    /**
+     * Combina los filtros con la inclusión y exclusión de ids, expresadas sobre
+     * parámetros arreglo (bigint[]) en lugar de un parámetro por id.
+     *
+     * @param posicionIncluido posición del espacio entre los ids incluidos, o null para no restringir.
+     */
+    private Predicate filtrar(Specification<Espacio> spec, Expression<Integer> posicionIncluido, Collection<Long> idsExcluidos, Root<Espacio> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Predicate> condiciones = new ArrayList<>();
+        Predicate filtros = spec.toPredicate(root, query, cb);
+        if (filtros != null) {
+            condiciones.add(filtros);
+        }
+        if (posicionIncluido != null) {
+            condiciones.add(cb.isNotNull(posicionIncluido));
+        }
+        if (!idsExcluidos.isEmpty()) {
+            condiciones.add(cb.isNull(posicionEn(PARAMETRO_IDS_EXCLUIDOS, root, cb)));
+        }
+        return condiciones.isEmpty() ? null : cb.and(condiciones.toArray(new Predicate[0]));
+    }
+
+    private Expression<Integer> posicionIncluido(List<Long> idsIncluidos, Root<Espacio> root, CriteriaBuilder cb) {
+        return idsIncluidos != null ? posicionEn(PARAMETRO_IDS_INCLUIDOS, root, cb) : null;
+    }
+
+    /**
+     * Posición (base 1) del id del espacio en el arreglo del parámetro, o null si no está.
+     * La misma expresión sirve de filtro y de orden, con un único parámetro vinculado.
+     */
+    private Expression<Integer> posicionEn(String parametro, Root<Espacio> root, CriteriaBuilder cb) {
+        return cb.function("array_position", Integer.class, cb.parameter(Long[].class, parametro), root.get("id"));
+    }
+
+    private void vincularIds(TypedQuery<?> typedQuery, List<Long> idsIncluidos, Collection<Long> idsExcluidos) {
+        if (idsIncluidos != null) {
+            typedQuery.setParameter(PARAMETRO_IDS_INCLUIDOS, idsIncluidos.toArray(new Long[0]));
+        }
+        if (!idsExcluidos.isEmpty()) {
+            typedQuery.setParameter(PARAMETRO_IDS_EXCLUIDOS, idsExcluidos.toArray(new Long[0]));
+        }
+    }
+
+    private EspacioListadoFila mapearFila(Tuple tuple) {
+        return new EspacioListadoFila(
+                tuple.get(0, Long.class),
+                tuple.get(1, String.class),
+                tuple.get(2, String.class),
+                tuple.get(3, BigDecimal.class),
+                tuple.get(4, String.class),
+                tuple.get(5, Integer.class),
+                tuple.get(6, Double.class),
+                tuple.get(7, Double.class),
+                tuple.get(8, EstadoEspacio.class),
+                tuple.get(9, VisibilidadDireccion.class),
+                tuple.get(10, Long.class),
+                tuple.get(11, LocalDateTime.class),
+                tuple.get(12, String.class)
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.plataformaeventos.web_backend.repository;
+
+/**
+ * Proyección con los campos de texto de un espacio, usada para
+ * construir los índices de búsqueda sin cargar entidades completas.
+ */
+public interface EspacioTextoProyeccion {
+    Long getId();
+    String getNombre();
+    String getDescripcion();
+    String getTipo();
+    String getDireccion();
+}
@@ -0,0 +1,18 @@
+package com.plataformaeventos.web_backend.repository;
+
+import com.plataformaeventos.web_backend.model.VisibilidadDireccion;
+
+import java.math.BigDecimal;
+
+/**
+ * Proyección con la ubicación de un espacio publicado, usada para
+ * construir el índice espacial y los agregados del mapa sin cargar
+ * entidades completas.
+ */
+public interface EspacioUbicacionProyeccion {
+    Long getId();
+    Double getLatitud();
+    Double getLongitud();
+    BigDecimal getPrecio();
+    VisibilidadDireccion getMostrarDireccionExacta();
+}
@@ -0,0 +1,43 @@
+package com.plataformaeventos.web_backend.repository;
+
+import com.plataformaeventos.web_backend.model.EstadoEventoSalida;
+import com.plataformaeventos.web_backend.model.EventoSalida;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de la bandeja de salida.
+ */
+public interface EventoSalidaRepository extends JpaRepository<EventoSalida, Long> {
+
+    /**
+     * Toma un lote de eventos listos para procesar (los de mayor prioridad y más atrasados primero)
+     * y los bloquea hasta el fin de la transacción.
+     *
+     * SKIP LOCKED saltea las filas que otra réplica ya tomó: varios despachadores
+     * reparten el trabajo sin esperarse ni procesar dos veces el mismo evento.
+     */
+    @Query(value = "SELECT * FROM eventos_salida WHERE estado = 'PENDIENTE' AND proximo_intento <= :ahora " +
+            "ORDER BY prioridad DESC, proximo_intento, id LIMIT :lote FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EventoSalida> tomarLote(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    long countByEstado(EstadoEventoSalida estado);
+
+    /**
+     * Eventos listos (pendientes y ya vencida su espera): la profundidad de la cola.
+     */
+    @Query("SELECT COUNT(e) FROM EventoSalida e WHERE e.estado = com.plataformaeventos.web_backend.model.EstadoEventoSalida.PENDIENTE " +
+            "AND e.proximoIntento <= :ahora")
+    long contarListos(@Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Momento desde el que espera el evento listo más atrasado (null si no hay): el retraso de la cola.
+     */
+    @Query("SELECT MIN(e.proximoIntento) FROM EventoSalida e WHERE e.estado = com.plataformaeventos.web_backend.model.EstadoEventoSalida.PENDIENTE " +
+            "AND e.proximoIntento <= :ahora")
+    LocalDateTime listoMasAntiguo(@Param("ahora") LocalDateTime ahora);
+}
@@ -1,10 +1,13 @@
 package com.plataformaeventos.web_backend.repository;
 
 import com.plataformaeventos.web_backend.model.Pago;
+import com.plataformaeventos.web_backend.model.TipoPago;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
 
 public interface PagoRepository extends JpaRepository<Pago, Long> {
     // Buscar pagos de un usuario ordenados por fecha (más reciente arriba)
     List<Pago> findByUsuarioIdOrderByFechaDesc(Long usuarioId);
+
+    boolean existsByReservaIdAndTipo(Long reservaId, TipoPago tipo);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.plataformaeventos.web_backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con el rango de una reserva activa, usada para construir
+ * los índices de ocupación sin cargar entidades completas.
+ */
+public interface ReservaIntervaloProyeccion {
+    Long getId();
+    Long getEspacioId();
+    LocalDateTime getFechaInicio();
+    LocalDateTime getFechaFin();
+}
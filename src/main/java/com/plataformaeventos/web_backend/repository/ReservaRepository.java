@@ -4,12 +4,16 @@ import com.plataformaeventos.web_backend.model.EstadoReserva;
 import com.plataformaeventos.web_backend.model.Reserva;
 import com.plataformaeventos.web_backend.model.Usuario;
 import com.plataformaeventos.web_backend.model.Espacio;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio de acceso a datos para la entidad Reserva.
@@ -74,4 +78,55 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     List<Reserva> findByEspacioId(Long espacioId);
 
     List<Reserva> findByEspacioAndEstadoNot(Espacio espacio, EstadoReserva estado);
+
+    /**
+     * Rangos de las reservas no canceladas que terminan a partir de la fecha indicada.
+     * Alimenta los índices de ocupación en memoria.
+     */
+    @Query("SELECT r.id AS id, r.espacio.id AS espacioId, r.fechaInicio AS fechaInicio, r.fechaFin AS fechaFin " +
+            "FROM Reserva r WHERE r.estado <> com.plataformaeventos.web_backend.model.EstadoReserva.CANCELADA " +
+            "AND r.fechaFin >= :desde")
+    List<ReservaIntervaloProyeccion> findIntervalosActivosDesde(@Param("desde") LocalDateTime desde);
+
+    /**
+     * Rangos de las reservas no canceladas de un espacio que se solapan con [desde, hasta).
+     */
+    @Query("SELECT r.id AS id, r.espacio.id AS espacioId, r.fechaInicio AS fechaInicio, r.fechaFin AS fechaFin " +
+            "FROM Reserva r WHERE r.espacio.id = :espacioId " +
+            "AND r.estado <> com.plataformaeventos.web_backend.model.EstadoReserva.CANCELADA " +
+            "AND r.fechaFin > :desde AND r.fechaInicio < :hasta")
+    List<ReservaIntervaloProyeccion> findIntervalosActivosEntre(@Param("espacioId") Long espacioId,
+                                                                @Param("desde") LocalDateTime desde,
+                                                                @Param("hasta") LocalDateTime hasta);
+
+    /**
+     * Cancela hasta {@code lote} retenciones PENDIENTE ya vencidas, las más antiguas primero,
+     * y devuelve sus ids. Es una sola sentencia condicional: sólo cambia filas que siguen
+     * PENDIENTE, y salta las bloqueadas por una confirmación en curso
+     * ({@link #findParaActualizar(Long)}), que decide ella misma si llegó a tiempo.
+     * Usa el índice parcial idx_reservas_retenciones_vencimiento (schema.sql).
+     */
+    @Query(value = "UPDATE reservas SET estado = 'CANCELADA' WHERE id IN (" +
+            "SELECT id FROM reservas WHERE estado = 'PENDIENTE' AND expira_en <= :ahora " +
+            "ORDER BY expira_en LIMIT :lote FOR UPDATE SKIP LOCKED) RETURNING id", nativeQuery = true)
+    List<Long> cancelarRetencionesVencidas(@Param("ahora") LocalDateTime ahora, @Param("lote") int lote);
+
+    /**
+     * Obtiene la reserva con un lock de fila (SELECT ... FOR UPDATE) hasta el final de la
+     * transacción, para cambiar su estado sin competir con el barrido de retenciones.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reserva r WHERE r.id = :id")
+    Optional<Reserva> findParaActualizar(@Param("id") Long id);
+
+    /**
+     * Ids de los espacios (entre los indicados) con alguna reserva no cancelada
+     * que se solapa con el rango. Una sola consulta agrupada para todo el lote.
+     */
+    @Query("SELECT r.espacio.id FROM Reserva r WHERE r.espacio.id IN :espacioIds " +
+            "AND r.estado <> com.plataformaeventos.web_backend.model.EstadoReserva.CANCELADA " +
+            "AND r.fechaInicio < :fin AND r.fechaFin > :inicio GROUP BY r.espacio.id")
+    List<Long> findEspaciosConSolapamiento(@Param("espacioIds") Collection<Long> espacioIds,
+                                           @Param("inicio") LocalDateTime inicio,
+                                           @Param("fin") LocalDateTime fin);
 }
\ No newline at end of file
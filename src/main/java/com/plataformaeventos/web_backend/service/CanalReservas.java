@@ -0,0 +1,212 @@
+package com.plataformaeventos.web_backend.service;
+
+import com.plataformaeventos.web_backend.event.ReservaModificadaEvent;
+import com.plataformaeventos.web_backend.event.ReservaSincronizadaEvent;
+import com.plataformaeventos.web_backend.model.Reserva;
+import com.plataformaeventos.web_backend.repository.ReservaRepository;
+import com.plataformaeventos.web_backend.service.indice.OcupacionEspacios;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Avisa a las demás réplicas de cada reserva creada o modificada, con LISTEN/NOTIFY
+ * de PostgreSQL, para que su ocupación en memoria no espere a la reconstrucción periódica.
+ *
+ * El aviso ({@code pg_notify}) se envía dentro de la transacción de la reserva: PostgreSQL
+ * sólo lo entrega si hace commit, y nunca antes. Las reservas de una misma transacción
+ * viajan juntas (un aviso cada {@value #RESERVAS_POR_AVISO}), así un lote del barrido de
+ * retenciones vencidas no genera un aviso por reserva. Cada réplica escucha el canal con una
+ * conexión propia (tomada del pool de forma permanente), vuelve a leer las reservas
+ * avisadas y publica un {@link ReservaSincronizadaEvent} por cada una. Los avisos de la
+ * propia réplica se ignoran: ya los aplicó con el {@link ReservaModificadaEvent} local.
+ *
+ * Si la conexión de escucha se corta, los avisos de ese intervalo se pierden: al
+ * reconectarse se reconstruye la ocupación completa.
+ */
+@Component
+@RequiredArgsConstructor
+public class CanalReservas {
+
+    static final String CANAL = "reservas_modificadas";
+
+    private static final String SEPARADOR_NODO = "|";
+    private static final int ESPERA_AVISOS_MS = 5_000;
+    private static final long ESPERA_RECONEXION_MS = 5_000;
+
+    /**
+     * Con ids de hasta 19 dígitos, el aviso queda por debajo de los 8000 bytes que admite NOTIFY.
+     */
+    static final int RESERVAS_POR_AVISO = 300;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ReservaRepository reservaRepository;
+    private final OcupacionEspacios ocupacionEspacios;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Identifica a esta réplica en los avisos, para descartar los propios.
+     */
+    private final String nodo = UUID.randomUUID().toString();
+
+    private volatile boolean activo;
+    private Thread escucha;
+
+    /**
+     * Junta la reserva con las demás de la transacción; se avisan todas justo antes del commit.
+     * Fuera de una transacción se avisa en el momento.
+     */
+    @EventListener
+    public void alModificarReserva(ReservaModificadaEvent evento) {
+        Long reservaId = evento.reserva().getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            avisar(List.of(reservaId));
+            return;
+        }
+        pendientesDeLaTransaccion().add(reservaId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> pendientesDeLaTransaccion() {
+        List<Long> pendientes = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes != null) {
+            return pendientes;
+        }
+        List<Long> nuevas = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, nuevas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                avisar(nuevas);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CanalReservas.this);
+            }
+        });
+        return nuevas;
+    }
+
+    private void avisar(List<Long> reservaIds) {
+        for (int desde = 0; desde < reservaIds.size(); desde += RESERVAS_POR_AVISO) {
+            List<Long> tramo = reservaIds.subList(desde, Math.min(desde + RESERVAS_POR_AVISO, reservaIds.size()));
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CANAL, codificar(nodo, tramo));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        activo = true;
+        escucha = Thread.ofVirtual().name("canal-reservas").start(this::escuchar);
+    }
+
+    @PreDestroy
+    public void detener() {
+        activo = false;
+        if (escucha != null) {
+            escucha.interrupt();
+        }
+    }
+
+    private void escuchar() {
+        boolean reconexion = false;
+        while (activo) {
+            try (Connection conexion = dataSource.getConnection()) {
+                PGConnection postgres = conexion.unwrap(PGConnection.class);
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("LISTEN " + CANAL);
+                }
+                if (reconexion) {
+                    // Lo que se avisó mientras no había conexión no va a llegar
+                    ocupacionEspacios.reconstruir();
+                }
+                reconexion = true;
+
+                while (activo) {
+                    PGNotification[] avisos = postgres.getNotifications(ESPERA_AVISOS_MS);
+                    if (avisos != null) {
+                        for (PGNotification aviso : avisos) {
+                            recibir(aviso.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!activo) {
+                    return;
+                }
+                System.out.println("⚠️ Canal de reservas interrumpido, reintentando: " + e.getMessage());
+                try {
+                    Thread.sleep(ESPERA_RECONEXION_MS);
+                } catch (InterruptedException interrumpido) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void recibir(String contenido) {
+        Aviso aviso = decodificar(contenido);
+        if (aviso == null || aviso.nodo().equals(nodo)) {
+            return;
+        }
+        for (Reserva reserva : reservaRepository.findAllById(aviso.reservaIds())) {
+            eventPublisher.publishEvent(new ReservaSincronizadaEvent(reserva));
+        }
+    }
+
+    record Aviso(String nodo, List<Long> reservaIds) {
+    }
+
+    /**
+     * Contenido del aviso: {@code nodo|id,id,...}.
+     */
+    static String codificar(String nodo, List<Long> reservaIds) {
+        StringBuilder contenido = new StringBuilder(nodo).append(SEPARADOR_NODO);
+        for (int i = 0; i < reservaIds.size(); i++) {
+            if (i > 0) {
+                contenido.append(',');
+            }
+            contenido.append(reservaIds.get(i));
+        }
+        return contenido.toString();
+    }
+
+    /**
+     * Interpreta el contenido de un aviso, o null si no tiene el formato esperado.
+     */
+    static Aviso decodificar(String contenido) {
+        int separador = contenido == null ? -1 : contenido.indexOf(SEPARADOR_NODO);
+        if (separador <= 0) {
+            return null;
+        }
+        List<Long> reservaIds = new ArrayList<>();
+        try {
+            for (String id : contenido.substring(separador + 1).split(",")) {
+                if (!id.isBlank()) {
+                    reservaIds.add(Long.valueOf(id.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return new Aviso(contenido.substring(0, separador), reservaIds);
+    }
+}
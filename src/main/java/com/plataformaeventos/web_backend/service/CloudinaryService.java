@@ -2,9 +2,12 @@ package com.plataformaeventos.web_backend.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Service
@@ -12,17 +15,57 @@ public class CloudinaryService {
 
     private final Cloudinary cloudinary;
 
+    /**
+     * Hasta este tamaño el archivo se sube desde memoria; por encima, desde un archivo
+     * temporal en disco que el cliente HTTP lee de a bloques (el heap no depende del tamaño).
+     * Conviene que coincida con spring.servlet.multipart.file-size-threshold.
+     */
+    @Value("${cloudinary.subida.umbral-memoria-bytes:262144}")
+    private long umbralMemoria;
+
+    /**
+     * Resultado de una subida: la URL pública y el public_id con el que se puede eliminar.
+     */
+    public record ImagenSubida(String url, String publicId) {
+    }
+
     public CloudinaryService(Cloudinary cloudinary) {
         this.cloudinary = cloudinary;
     }
 
     public String subirImagen(MultipartFile file) throws IOException {
-        // Subimos el archivo y dejamos que Cloudinary detecte el tipo
-        Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
+        return subir(file).url();
+    }
+
+    public ImagenSubida subir(MultipartFile file) throws IOException {
+        // Dejamos que Cloudinary detecte el tipo
+        Map<?, ?> opciones = ObjectUtils.asMap(
                 "resource_type", "auto"
-        ));
+        );
+
+        Map uploadResult;
+        if (file.getSize() <= umbralMemoria) {
+            // Subimos el archivo
+            uploadResult = cloudinary.uploader().upload(file.getBytes(), opciones);
+        } else {
+            // Si la parte ya está en disco, transferTo la mueve sin pasar por memoria
+            Path temporal = Files.createTempFile("subida-", ".tmp");
+            try {
+                file.transferTo(temporal);
+                uploadResult = cloudinary.uploader().upload(temporal.toFile(), opciones);
+            } finally {
+                Files.deleteIfExists(temporal);
+            }
+        }
+
+        // Retornamos la URL segura (https) y el id para poder eliminarla
+        return new ImagenSubida((String) uploadResult.get("secure_url"), (String) uploadResult.get("public_id"));
+    }
 
-        // Retornamos la URL segura (https)
-        return (String) uploadResult.get("secure_url");
+    /**
+     * Elimina una imagen subida. Si ya no existe, no hace nada (se puede reintentar).
+     */
+    public void eliminarImagen(String publicId) throws IOException {
+        cloudinary.uploader().destroy(publicId, ObjectUtils.asMap("invalidate", true));
     }
 }
@@ -0,0 +1,65 @@
+package com.plataformaeventos.web_backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Serializa las reservas de un mismo espacio entre todas las réplicas del backend.
+ *
+ * Usa un advisory lock de PostgreSQL con alcance de transacción
+ * ({@code pg_advisory_xact_lock}) cuya clave es el id del espacio: dos reservas
+ * del mismo espacio esperan una a la otra, las de espacios distintos no se
+ * bloquean entre sí, y el lock se libera solo al hacer commit o rollback.
+ *
+ * El tiempo de espera del lock se publica como la métrica
+ * {@code reservas.bloqueo.espera} (ver /actuator/metrics), con la etiqueta
+ * {@code tipo=espacio} o {@code tipo=idempotencia} según el lock.
+ */
+@Component
+public class CoordinadorReservas {
+
+    private static final int CLASE_IDEMPOTENCIA = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer esperaBloqueoEspacio;
+    private final Timer esperaBloqueoClave;
+
+    public CoordinadorReservas(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.esperaBloqueoEspacio = Timer.builder("reservas.bloqueo.espera")
+                .description("Tiempo de espera de los advisory locks al crear una reserva")
+                .tag("tipo", "espacio")
+                .register(meterRegistry);
+        this.esperaBloqueoClave = Timer.builder("reservas.bloqueo.espera")
+                .description("Tiempo de espera de los advisory locks al crear una reserva")
+                .tag("tipo", "idempotencia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Toma el lock del espacio hasta el final de la transacción actual.
+     * Debe llamarse dentro de la transacción que verifica e inserta la reserva, y la
+     * verificación debe hacerse después con una consulta a la base de datos: en
+     * READ COMMITTED cada sentencia ve lo que confirmó quien tenía el lock antes, cosa
+     * que no garantiza ningún índice en memoria de esta réplica.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bloquearEspacio(Long espacioId) {
+        esperaBloqueoEspacio.record(() -> jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", espacioId));
+    }
+
+    /**
+     * Toma un lock por Idempotency-Key hasta el final de la transacción actual, para que
+     * dos envíos simultáneos de la misma clave se ejecuten de a uno (el segundo encuentra
+     * la respuesta del primero). Usa la variante de dos enteros del advisory lock, cuyo
+     * espacio de claves no se cruza con el de {@link #bloquearEspacio(Long)}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bloquearClave(String clave) {
+        esperaBloqueoClave.record(() -> jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?, hashtext(?))", CLASE_IDEMPOTENCIA, clave));
+    }
+}
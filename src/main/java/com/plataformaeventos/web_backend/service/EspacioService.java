@@ -3,82 +3,139 @@ package com.plataformaeventos.web_backend.service;
 import com.plataformaeventos.web_backend.dto.EspacioActualizarRequest;
 import com.plataformaeventos.web_backend.dto.EspacioConfig;
 import com.plataformaeventos.web_backend.dto.EspacioCrearRequest;
+import com.plataformaeventos.web_backend.dto.EspacioListadoResponse;
 import com.plataformaeventos.web_backend.dto.EspacioResponse;
+import com.plataformaeventos.web_backend.dto.FormatoOcupacion;
+import com.plataformaeventos.web_backend.dto.MapaResponse;
+import com.plataformaeventos.web_backend.dto.ModoBusqueda;
+import com.plataformaeventos.web_backend.dto.PaginaCursorResponse;
+import com.plataformaeventos.web_backend.dto.VentanaFlexible;
+import com.plataformaeventos.web_backend.event.EspacioEliminadoEvent;
+import com.plataformaeventos.web_backend.event.EspacioModificadoEvent;
 import com.plataformaeventos.web_backend.exception.DatosInvalidosException;
 import com.plataformaeventos.web_backend.exception.RecursoNoEncontradoException;
 import com.plataformaeventos.web_backend.model.*;
+import com.plataformaeventos.web_backend.repository.EspacioListadoFila;
 import com.plataformaeventos.web_backend.repository.EspacioRepository;
-import com.plataformaeventos.web_backend.repository.ReservaRepository;
 import com.plataformaeventos.web_backend.repository.UsuarioRepository;
+import com.plataformaeventos.web_backend.service.CloudinaryService.ImagenSubida;
+import com.plataformaeventos.web_backend.service.indice.IndiceBusquedaEspacios;
+import com.plataformaeventos.web_backend.service.indice.IndiceEspacial;
+import com.plataformaeventos.web_backend.service.indice.IndiceEspacialEspacios;
+import com.plataformaeventos.web_backend.service.indice.IndiceMapa;
+import com.plataformaeventos.web_backend.service.indice.OcupacionEspacios;
+import com.plataformaeventos.web_backend.service.indice.UbicacionAproximada;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class EspacioService {
 
+    private static final int LIMITE_MAXIMO_CURSOR = 100;
+    private static final double RADIO_MAXIMO_KM = 100;
+    private static final int LIMITE_MAXIMO_CERCANOS = 200;
+    private static final int ZOOM_PINES = 14;
+    private static final int MESES_MAXIMOS_VENTANA = 12;
+    private static final int LIMITE_PINES = 500;
+
+    /**
+     * Cota de resultados de una búsqueda de texto en el listado paginado,
+     * aplicada después de todos los filtros.
+     */
+    static final int MAX_RESULTADOS_BUSQUEDA = 500;
+
     private final EspacioRepository espacioRepository;
     private final UsuarioRepository usuarioRepository;
-    private final ReservaRepository reservaRepository;
-    private final CloudinaryService cloudinaryService;
-
-    @Transactional
+    private final SubidorImagenes subidorImagenes;
+    private final TransactionTemplate transactionTemplate;
+    private final IndiceBusquedaEspacios indiceBusquedaEspacios;
+    private final IndiceEspacialEspacios indiceEspacialEspacios;
+    private final OcupacionEspacios ocupacionEspacios;
+    private final UbicacionAproximada ubicacionAproximada;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Las imágenes se suben en paralelo antes de abrir la transacción: la conexión
+     * a la base de datos sólo se toma para guardar, no durante las subidas.
+     */
     public EspacioResponse crearEspacio(EspacioCrearRequest request, List<MultipartFile> imagenes, Long propietarioId) throws IOException {
         // Validar lógica de fechas
         validarHorarios(request.getHoraCheckIn(), request.getHoraCheckOut());
 
-        Usuario propietario = usuarioRepository.findById(propietarioId)
-                .orElseThrow(() -> new RecursoNoEncontradoException("El propietario especificado no existe."));
+        if (!usuarioRepository.existsById(propietarioId)) {
+            throw new RecursoNoEncontradoException("El propietario especificado no existe.");
+        }
 
         if ("PUBLICADO".equalsIgnoreCase(request.getEstado())) {
             validarPublicacion(request);
         }
 
-        Espacio espacio = new Espacio();
-        mapearRequestAEntidad(request, espacio);
-        espacio.setPropietario(propietario);
-        espacio.setFechaCreacion(LocalDateTime.now());
-        
         // Gestión de Imágenes con validación de Magic Bytes
+        List<ImagenSubida> subidas = List.of();
         if (imagenes != null && !imagenes.isEmpty()) {
             validarImagenes(imagenes);
             
             // Reordenar imágenes según imageOrder si existe
             List<MultipartFile> imagenesOrdenadas = ordenarImagenes(imagenes, request.getImageOrder());
+            subidas = subidorImagenes.subir(imagenesOrdenadas);
+        }
+        List<ImagenSubida> subidasOrdenadas = subidas;
+
+        return guardarConImagenes(subidas, () -> transactionTemplate.execute(estado -> {
+            Usuario propietario = usuarioRepository.findById(propietarioId)
+                    .orElseThrow(() -> new RecursoNoEncontradoException("El propietario especificado no existe."));
 
-            for (int i = 0; i < imagenesOrdenadas.size(); i++) {
-                MultipartFile imgFile = imagenesOrdenadas.get(i);
-                String url = cloudinaryService.subirImagen(imgFile);
+            Espacio espacio = new Espacio();
+            mapearRequestAEntidad(request, espacio);
+            espacio.setPropietario(propietario);
+            espacio.setFechaCreacion(LocalDateTime.now());
+
+            for (int i = 0; i < subidasOrdenadas.size(); i++) {
                 ImagenEspacio imagenEspacio = new ImagenEspacio();
-                imagenEspacio.setUrl(url);
+                imagenEspacio.setUrl(subidasOrdenadas.get(i).url());
+                imagenEspacio.setPublicId(subidasOrdenadas.get(i).publicId());
                 imagenEspacio.setEspacio(espacio);
                 imagenEspacio.setOrden(i);
                 espacio.getImagenes().add(imagenEspacio);
             }
-        }
 
-        Espacio guardado = espacioRepository.save(espacio);
-        return mapearAResponse(guardado, propietarioId);
+            Espacio guardado = espacioRepository.save(espacio);
+            eventPublisher.publishEvent(new EspacioModificadoEvent(guardado));
+            return mapearAResponse(guardado, propietarioId);
+        }));
     }
 
-    @Transactional
+    /**
+     * Igual que al crear: se verifica el propietario, se suben en paralelo las imágenes
+     * nuevas y recién después se abre la transacción que guarda los cambios.
+     */
     public EspacioResponse actualizarEspacio(Long espacioId, Long usuarioId, EspacioActualizarRequest request, List<MultipartFile> nuevasImagenes) throws IOException {
         // Validar lógica de fechas si se actualizan
         if (request.getHoraCheckIn() != null && request.getHoraCheckOut() != null) {
@@ -89,20 +146,53 @@ public class EspacioService {
             validarPublicacion(request);
         }
 
-        Espacio espacio = findEspacioByIdAndPropietario(espacioId, usuarioId);
-        mapearRequestAEntidad(request, espacio);
+        // Antes de subir nada: el espacio existe y es del usuario
+        findEspacioByIdAndPropietario(espacioId, usuarioId);
 
         // Gestión de Imágenes
         if (nuevasImagenes != null && !nuevasImagenes.isEmpty()) {
             validarImagenes(nuevasImagenes);
         }
 
+        List<String> imageOrder = request.getImageOrder();
+        Map<String, ImagenSubida> subidasNuevas = new HashMap<>();
+        List<ImagenSubida> subidas = List.of();
+        if (imageOrder != null && nuevasImagenes != null) {
+            Map<String, MultipartFile> mapaNuevasImagenes = nuevasImagenes.stream()
+                    .collect(Collectors.toMap(MultipartFile::getOriginalFilename, Function.identity()));
+            List<String> nombres = imageOrder.stream()
+                    .filter(item -> !item.startsWith("http") && mapaNuevasImagenes.containsKey(item))
+                    .distinct()
+                    .collect(Collectors.toList());
+            subidas = subidorImagenes.subir(nombres.stream().map(mapaNuevasImagenes::get).collect(Collectors.toList()));
+            for (int i = 0; i < nombres.size(); i++) {
+                subidasNuevas.put(nombres.get(i), subidas.get(i));
+            }
+        }
+
+        return guardarConImagenes(subidas, () -> transactionTemplate.execute(estado -> guardarCambios(espacioId, usuarioId, request, subidasNuevas)));
+    }
+
+    /**
+     * Ejecuta la transacción que referencia las imágenes ya subidas. Si falla, las imágenes
+     * no quedaron en ningún espacio: se eliminan de Cloudinary antes de propagar el error.
+     */
+    private EspacioResponse guardarConImagenes(List<ImagenSubida> subidas, Supplier<EspacioResponse> transaccion) {
+        try {
+            return transaccion.get();
+        } catch (RuntimeException e) {
+            subidorImagenes.descartar(subidas);
+            throw e;
+        }
+    }
+
+    private EspacioResponse guardarCambios(Long espacioId, Long usuarioId, EspacioActualizarRequest request, Map<String, ImagenSubida> subidasNuevas) {
+        Espacio espacio = findEspacioByIdAndPropietario(espacioId, usuarioId);
+        mapearRequestAEntidad(request, espacio);
+
         List<String> imageOrder = request.getImageOrder();
         if (imageOrder != null) {
             List<ImagenEspacio> galeriaFinal = new ArrayList<>();
-            Map<String, MultipartFile> mapaNuevasImagenes = (nuevasImagenes != null)
-                    ? nuevasImagenes.stream().collect(Collectors.toMap(MultipartFile::getOriginalFilename, Function.identity()))
-                    : Collections.emptyMap();
 
             int orden = 0;
             for (String item : imageOrder) {
@@ -113,22 +203,26 @@ public class EspacioService {
                             .findFirst()
                             .orElse(new ImagenEspacio());
                     imagenParaGuardar.setUrl(item);
-                } else {
-                    MultipartFile archivoNuevo = mapaNuevasImagenes.get(item);
-                    if (archivoNuevo != null) {
-                        imagenParaGuardar.setUrl(cloudinaryService.subirImagen(archivoNuevo));
-                    }
+                } else if (subidasNuevas.containsKey(item)) {
+                    imagenParaGuardar.setUrl(subidasNuevas.get(item).url());
+                    imagenParaGuardar.setPublicId(subidasNuevas.get(item).publicId());
                 }
                 
                 imagenParaGuardar.setOrden(orden++);
                 imagenParaGuardar.setEspacio(espacio);
                 galeriaFinal.add(imagenParaGuardar);
             }
+            // Las imágenes que salen de la galería se eliminan de Cloudinary más tarde
+            subidorImagenes.programarEliminacion(espacio.getImagenes().stream()
+                    .filter(imagen -> !galeriaFinal.contains(imagen) && imagen.getPublicId() != null)
+                    .map(ImagenEspacio::getPublicId)
+                    .collect(Collectors.toList()));
             espacio.getImagenes().clear();
             espacio.getImagenes().addAll(galeriaFinal);
         }
 
         Espacio actualizado = espacioRepository.save(espacio);
+        eventPublisher.publishEvent(new EspacioModificadoEvent(actualizado));
         return mapearAResponse(actualizado, usuarioId);
     }
 
@@ -292,7 +386,219 @@ public class EspacioService {
         }
     }
     
-    public Page<EspacioResponse> listarEspacios(Long usuarioId, String busqueda, String tipo, String servicios, Integer capacidadMinima, Long usuarioNavegandoId, Pageable pageable) {
+    public Page<EspacioListadoResponse> listarEspacios(Long usuarioId, String busqueda, ModoBusqueda modoBusqueda, String tipo, String servicios, Integer capacidadMinima, LocalDateTime fechaInicio, LocalDateTime fechaFin, VentanaFlexible ventana, Integer meses, Long usuarioNavegandoId, Pageable pageable) {
+        Specification<Espacio> spec = construirFiltros(usuarioId, tipo, servicios, capacidadMinima, fechaInicio, fechaFin, usuarioNavegandoId);
+        List<Long> idsBusqueda = null;
+        if (usuarioId != null) {
+            // El índice sólo tiene espacios publicados: el propietario busca también
+            // entre sus borradores y pausados, directamente en la base
+            spec = spec.and(textoEnBase(busqueda));
+        } else {
+            idsBusqueda = buscarIds(busqueda, modoBusqueda);
+        }
+
+        LocalDate horizonte = null;
+        Set<Long> sinVentana = Set.of();
+        if (ventana != null) {
+            int mesesBuscados = meses != null ? meses : 3;
+            if (mesesBuscados < 1 || mesesBuscados > MESES_MAXIMOS_VENTANA) {
+                throw new DatosInvalidosException("Los meses deben estar entre 1 y " + MESES_MAXIMOS_VENTANA + ".");
+            }
+            horizonte = LocalDate.now().plusMonths(mesesBuscados);
+            // Sólo los espacios con reservas pueden no tener ventana: se excluyen por id
+            // (como un único parámetro arreglo, ver EspacioRepositoryCustom)
+            sinVentana = ocupacionEspacios.espaciosSinVentanaLibre(horizonte, ventana.getDias(), ventana.getDiasDeInicio());
+        }
+
+        // Proyección liviana: una sola consulta por página, sin galería ni fechas ocupadas.
+        // Con búsqueda de texto y sin orden explícito, la base ordena por relevancia
+        Page<EspacioListadoFila> filas = espacioRepository.findListado(spec, idsBusqueda, sinVentana, pageable);
+        if (idsBusqueda != null) {
+            filas = acotar(filas, pageable);
+        }
+        Page<EspacioListadoResponse> pagina = filas.map(fila -> mapearAListado(fila, usuarioNavegandoId));
+
+        if (ventana != null) {
+            for (EspacioListadoResponse espacio : pagina.getContent()) {
+                LocalDate desde = ocupacionEspacios.primeraVentanaLibre(espacio.getId(), horizonte, ventana.getDias(), ventana.getDiasDeInicio());
+                espacio.setVentanaDesde(desde);
+                espacio.setVentanaHasta(desde != null ? desde.plusDays(ventana.getDias() - 1) : null);
+            }
+        }
+        return pagina;
+    }
+
+    /**
+     * Limita una página de resultados de búsqueda a los primeros {@link #MAX_RESULTADOS_BUSQUEDA}
+     * del listado ya filtrado: el total no la supera y las páginas posteriores quedan vacías.
+     */
+    private Page<EspacioListadoFila> acotar(Page<EspacioListadoFila> pagina, Pageable pageable) {
+        long total = Math.min(pagina.getTotalElements(), MAX_RESULTADOS_BUSQUEDA);
+        long desde = pageable.isPaged() ? pageable.getOffset() : 0;
+        int visibles = (int) Math.max(0, Math.min(pagina.getNumberOfElements(), total - desde));
+        return new PageImpl<>(pagina.getContent().subList(0, visibles), pageable, total);
+    }
+
+    /**
+     * Búsqueda por nombre y descripción con LIKE, para los listados que no pasan por el índice.
+     */
+    private Specification<Espacio> textoEnBase(String busqueda) {
+        return (root, query, cb) -> {
+            if (!StringUtils.hasText(busqueda)) {
+                return cb.conjunction();
+            }
+            String pattern = "%" + busqueda.trim().toLowerCase() + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("nombre")), pattern),
+                    cb.like(cb.lower(root.get("descripcion")), pattern)
+            );
+        };
+    }
+
+    /**
+     * Resuelve la búsqueda de texto contra los índices en memoria. La búsqueda
+     * tolerante a errores de tipeo sólo se usa si el cliente la pide con
+     * {@link ModoBusqueda#TOLERANTE}.
+     *
+     * @return ids ordenados por relevancia, o null si no hay texto de búsqueda.
+     */
+    private List<Long> buscarIds(String busqueda, ModoBusqueda modoBusqueda) {
+        if (!StringUtils.hasText(busqueda)) {
+            return null;
+        }
+        if (modoBusqueda == ModoBusqueda.TOLERANTE) {
+            return indiceBusquedaEspacios.buscarTolerante(busqueda);
+        }
+        return indiceBusquedaEspacios.buscar(busqueda);
+    }
+
+    /**
+     * Listado del catálogo público con paginación por cursor, pensado para scroll infinito.
+     *
+     * @param after  cursor opaco devuelto por la página anterior (null para la primera).
+     * @param limite tamaño de página solicitado.
+     */
+    public PaginaCursorResponse<EspacioListadoResponse> listarEspaciosPorCursor(String busqueda, ModoBusqueda modoBusqueda, String tipo, String servicios, Integer capacidadMinima, LocalDateTime fechaInicio, LocalDateTime fechaFin, Long usuarioNavegandoId, String after, int limite) {
+        if (limite <= 0 || limite > LIMITE_MAXIMO_CURSOR) {
+            throw new DatosInvalidosException("El límite debe estar entre 1 y " + LIMITE_MAXIMO_CURSOR + ".");
+        }
+
+        Specification<Espacio> spec = construirFiltros(null, tipo, servicios, capacidadMinima, fechaInicio, fechaFin, usuarioNavegandoId);
+        List<Long> idsBusqueda = buscarIds(busqueda, modoBusqueda);
+
+        LocalDateTime fechaCursor = null;
+        Long idCursor = null;
+        if (StringUtils.hasText(after)) {
+            String[] partes = decodificarCursor(after);
+            fechaCursor = LocalDateTime.parse(partes[0]);
+            idCursor = Long.valueOf(partes[1]);
+        }
+
+        // Pedimos una fila extra para saber si existe una página siguiente sin ejecutar count
+        List<EspacioListadoFila> filas = espacioRepository.findListadoDespuesDe(spec, idsBusqueda, fechaCursor, idCursor, limite + 1);
+        boolean hayMas = filas.size() > limite;
+        if (hayMas) {
+            filas = filas.subList(0, limite);
+        }
+
+        String siguienteCursor = null;
+        if (hayMas) {
+            EspacioListadoFila ultima = filas.get(filas.size() - 1);
+            siguienteCursor = codificarCursor(ultima.fechaCreacion(), ultima.id());
+        }
+
+        return PaginaCursorResponse.<EspacioListadoResponse>builder()
+                .contenido(filas.stream().map(fila -> mapearAListado(fila, usuarioNavegandoId)).collect(Collectors.toList()))
+                .siguienteCursor(siguienteCursor)
+                .hayMas(hayMas)
+                .build();
+    }
+
+    /**
+     * Espacios publicados cerca de un punto, ordenados por distancia.
+     *
+     * El índice espacial resuelve los candidatos y la distancia exacta; la base
+     * sólo se consulta una vez para armar las tarjetas de los resultados.
+     */
+    public List<EspacioListadoResponse> buscarCercanos(double latitud, double longitud, double radioKm, int limite, Long usuarioNavegandoId) {
+        if (latitud < -90 || latitud > 90 || longitud < -180 || longitud > 180) {
+            throw new DatosInvalidosException("Las coordenadas indicadas no son válidas.");
+        }
+        if (radioKm <= 0 || radioKm > RADIO_MAXIMO_KM) {
+            throw new DatosInvalidosException("El radio debe ser mayor a 0 y de hasta " + (int) RADIO_MAXIMO_KM + " km.");
+        }
+        if (limite <= 0 || limite > LIMITE_MAXIMO_CERCANOS) {
+            throw new DatosInvalidosException("El límite debe estar entre 1 y " + LIMITE_MAXIMO_CERCANOS + ".");
+        }
+
+        List<IndiceEspacial.Cercano> cercanos = indiceEspacialEspacios.buscarCercanos(latitud, longitud, radioKm, limite);
+        if (cercanos.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> distancias = new HashMap<>();
+        for (IndiceEspacial.Cercano cercano : cercanos) {
+            distancias.put(cercano.id(), cercano.distanciaKm());
+        }
+
+        Specification<Espacio> spec = construirFiltros(null, null, null, null, null, null, usuarioNavegandoId);
+        return espacioRepository.findListado(spec, new ArrayList<>(distancias.keySet()), Set.of(), Pageable.unpaged()).getContent().stream()
+                .sorted(Comparator.comparingDouble(fila -> distancias.get(fila.id())))
+                .map(fila -> {
+                    EspacioListadoResponse response = mapearAListado(fila, usuarioNavegandoId);
+                    // Redondeamos a 100 m para no revelar la ubicación exacta
+                    response.setDistanciaKm(Math.round(distancias.get(fila.id()) * 10) / 10.0);
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Contenido del mapa para el área visible: clusters por tile con zoom bajo
+     * y pines individuales a partir de {@link #ZOOM_PINES}.
+     *
+     * Los clusters se agrupan dos niveles por debajo del zoom pedido
+     * (tiles de 64 px en pantalla) y salen de agregados ya calculados.
+     */
+    public MapaResponse obtenerMapa(double sur, double oeste, double norte, double este, int zoom) {
+        if (sur > norte || oeste > este || sur < -90 || norte > 90 || oeste < -180 || este > 180) {
+            throw new DatosInvalidosException("El área del mapa indicada no es válida.");
+        }
+        if (zoom < 0 || zoom > 22) {
+            throw new DatosInvalidosException("El zoom debe estar entre 0 y 22.");
+        }
+
+        IndiceMapa.Rectangulo rectangulo = new IndiceMapa.Rectangulo(sur, oeste, norte, este);
+
+        if (zoom >= ZOOM_PINES) {
+            List<MapaResponse.Pin> pines = indiceEspacialEspacios.pines(rectangulo, LIMITE_PINES).stream()
+                    .map(punto -> MapaResponse.Pin.builder()
+                            .id(punto.id())
+                            // Las ubicaciones aproximadas ya entran desplazadas al índice
+                            .latitud(punto.latitud())
+                            .longitud(punto.longitud())
+                            .precio(punto.precio() != null ? BigDecimal.valueOf(punto.precio()) : null)
+                            .build())
+                    .collect(Collectors.toList());
+            return MapaResponse.builder().zoom(zoom).clusters(List.of()).pines(pines).build();
+        }
+
+        List<MapaResponse.Cluster> clusters = indiceEspacialEspacios.clusters(rectangulo, Math.min(zoom + 2, IndiceMapa.NIVEL_MAXIMO)).stream()
+                .map(cluster -> MapaResponse.Cluster.builder()
+                        .latitud(cluster.latitud())
+                        .longitud(cluster.longitud())
+                        .cantidad(cluster.cantidad())
+                        .precioMinimo(cluster.precioMinimo() != null ? BigDecimal.valueOf(cluster.precioMinimo()) : null)
+                        .build())
+                .collect(Collectors.toList());
+        return MapaResponse.builder().zoom(zoom).clusters(clusters).pines(List.of()).build();
+    }
+
+    private Specification<Espacio> construirFiltros(Long usuarioId, String tipo, String servicios, Integer capacidadMinima, LocalDateTime fechaInicio, LocalDateTime fechaFin, Long usuarioNavegandoId) {
+        if ((fechaInicio == null) != (fechaFin == null) || (fechaInicio != null && !fechaFin.isAfter(fechaInicio))) {
+            throw new DatosInvalidosException("Para filtrar por disponibilidad indique fechaInicio y fechaFin, con fechaFin posterior a fechaInicio.");
+        }
+
         Specification<Espacio> spec = (root, query, cb) -> cb.conjunction();
 
         if (usuarioId != null) {
@@ -304,15 +610,6 @@ public class EspacioService {
             }
         }
         
-        if (busqueda != null && !busqueda.trim().isEmpty()) {
-            spec = spec.and((root, query, cb) -> {
-                String pattern = "%" + busqueda.trim().toLowerCase() + "%";
-                return cb.or(
-                        cb.like(cb.lower(root.get("nombre")), pattern),
-                        cb.like(cb.lower(root.get("descripcion")), pattern)
-                );
-            });
-        }
         if (tipo != null && !tipo.trim().isEmpty()) {
             spec = spec.and((root, query, cb) -> cb.like(root.get("tipo"), "%" + tipo + "%"));
         }
@@ -322,8 +619,46 @@ public class EspacioService {
         if (capacidadMinima != null && capacidadMinima > 0) {
             spec = spec.and((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("capacidadMaxima"), capacidadMinima));
         }
-        
-        return espacioRepository.findAll(spec, pageable).map(espacio -> mapearAResponse(espacio, usuarioNavegandoId));
+        if (fechaInicio != null) {
+            // Anti-join: sin reservas activas que se solapen con el rango (usa idx_reservas_espacio_fin)
+            spec = spec.and((root, query, cb) -> {
+                Subquery<Long> solapadas = query.subquery(Long.class);
+                Root<Reserva> reserva = solapadas.from(Reserva.class);
+                solapadas.select(reserva.get("id")).where(
+                        cb.equal(reserva.get("espacio"), root),
+                        cb.notEqual(reserva.get("estado"), EstadoReserva.CANCELADA),
+                        cb.lessThan(reserva.get("fechaInicio"), fechaFin),
+                        cb.greaterThan(reserva.get("fechaFin"), fechaInicio)
+                );
+                return cb.not(cb.exists(solapadas));
+            });
+        }
+        return spec;
+    }
+
+    /**
+     * El cursor es opaco para el cliente: codifica la clave de orden (fecha de creación) y el id
+     * del último elemento entregado, en Base64 URL-safe.
+     */
+    private String codificarCursor(LocalDateTime fechaCreacion, Long id) {
+        String valor = fechaCreacion + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodificarCursor(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|");
+            if (partes.length != 2) {
+                throw new DatosInvalidosException("El cursor de paginación no es válido.");
+            }
+            // Validamos el formato antes de usarlo en la consulta
+            LocalDateTime.parse(partes[0]);
+            Long.valueOf(partes[1]);
+            return partes;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new DatosInvalidosException("El cursor de paginación no es válido.");
+        }
     }
 
     @Transactional
@@ -331,6 +666,7 @@ public class EspacioService {
         Espacio espacio = findEspacioByIdAndPropietario(espacioId, usuarioId);
         espacio.setEstado(EstadoEspacio.PAUSADO);
         Espacio guardado = espacioRepository.save(espacio);
+        eventPublisher.publishEvent(new EspacioModificadoEvent(guardado));
         return mapearAResponse(guardado, usuarioId);
     }
 
@@ -339,10 +675,16 @@ public class EspacioService {
         Espacio espacio = findEspacioByIdAndPropietario(espacioId, usuarioId);
         espacio.setEstado(EstadoEspacio.PUBLICADO);
         Espacio guardado = espacioRepository.save(espacio);
+        eventPublisher.publishEvent(new EspacioModificadoEvent(guardado));
         return mapearAResponse(guardado, usuarioId);
     }
 
-    public EspacioResponse obtenerPorId(Long id) {
+    /**
+     * Detalle de un espacio. {@code desde}/{@code hasta} acotan las fechas ocupadas
+     * que se incluyen (por defecto, desde hoy hasta el horizonte del calendario);
+     * {@code formato} elige entre un día por elemento o rangos de días consecutivos.
+     */
+    public EspacioResponse obtenerPorId(Long id, LocalDate desde, LocalDate hasta, FormatoOcupacion formato) {
         Espacio espacio = espacioRepository.findById(id)
                 .orElseThrow(() -> new RecursoNoEncontradoException("No se encontró un espacio con el ID especificado."));
         
@@ -353,13 +695,18 @@ public class EspacioService {
             // Usuario anónimo
         }
         
-        return mapearAResponse(espacio, usuarioId);
+        return mapearAResponse(espacio, usuarioId, desde, hasta, formato);
     }
 
     @Transactional
     public void eliminarEspacio(Long id, Long propietarioId) {
         Espacio espacio = findEspacioByIdAndPropietario(id, propietarioId);
+        subidorImagenes.programarEliminacion(espacio.getImagenes().stream()
+                .map(ImagenEspacio::getPublicId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
         espacioRepository.delete(espacio);
+        eventPublisher.publishEvent(new EspacioEliminadoEvent(id));
     }
     
     private Espacio findEspacioByIdAndPropietario(Long espacioId, Long usuarioId) {
@@ -372,6 +719,11 @@ public class EspacioService {
     }
 
     private EspacioResponse mapearAResponse(Espacio espacio, Long usuarioConsultanteId) {
+        return mapearAResponse(espacio, usuarioConsultanteId, null, null, FormatoOcupacion.DIAS);
+    }
+
+    private EspacioResponse mapearAResponse(Espacio espacio, Long usuarioConsultanteId,
+                                            LocalDate ocupadasDesde, LocalDate ocupadasHasta, FormatoOcupacion formato) {
         List<String> urls = espacio.getImagenes().stream()
                                     .map(ImagenEspacio::getUrl)
                                     .collect(Collectors.toList());
@@ -393,12 +745,11 @@ public class EspacioService {
             direccionMostrada = null; 
             referenciaMostrada = null;
             
-            // Fuzzing de coordenadas
+            // Fuzzing de coordenadas (el mismo desplazamiento que en el listado y el mapa)
             if (latitudMostrada != null && longitudMostrada != null) {
-                double fuzzLat = (Math.random() - 0.5) * 0.004; 
-                double fuzzLng = (Math.random() - 0.5) * 0.004;
-                latitudMostrada += fuzzLat;
-                longitudMostrada += fuzzLng;
+                UbicacionAproximada.Coordenadas aproximada = ubicacionAproximada.difuminar(espacio.getId(), latitudMostrada, longitudMostrada);
+                latitudMostrada = aproximada.latitud();
+                longitudMostrada = aproximada.longitud();
             }
         }
 
@@ -428,19 +779,21 @@ public class EspacioService {
                 .modoReserva(espacio.getModoReserva()) // NUEVO
                 .build();
 
-        // Obtener fechas ocupadas
-        List<String> fechasOcupadas = new ArrayList<>();
-        List<Reserva> reservas = reservaRepository.findByEspacioAndEstadoNot(espacio, EstadoReserva.CANCELADA);
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        
-        for (Reserva r : reservas) {
-            LocalDateTime current = r.getFechaInicio();
-            while (current.isBefore(r.getFechaFin()) || current.isEqual(r.getFechaFin())) {
-                fechasOcupadas.add(current.format(formatter));
-                current = current.plusDays(1);
-            }
+        // Fechas ocupadas (yyyy-MM-dd), leídas del calendario de ocupación
+        List<String> fechasOcupadas = List.of();
+        List<EspacioResponse.RangoOcupado> rangosOcupados = null;
+        if (formato == FormatoOcupacion.RANGOS) {
+            rangosOcupados = ocupacionEspacios.tramosOcupados(espacio.getId(), ocupadasDesde, ocupadasHasta).stream()
+                    .map(tramo -> EspacioResponse.RangoOcupado.builder()
+                            .desde(tramo.desde().toString())
+                            .hasta(tramo.hasta().toString())
+                            .build())
+                    .collect(Collectors.toList());
+        } else {
+            fechasOcupadas = ocupacionEspacios.diasOcupados(espacio.getId(), ocupadasDesde, ocupadasHasta).stream()
+                    .map(LocalDate::toString)
+                    .collect(Collectors.toList());
         }
-        fechasOcupadas = fechasOcupadas.stream().distinct().collect(Collectors.toList());
 
         return EspacioResponse.builder()
                 .id(espacio.getId())
@@ -458,6 +811,33 @@ public class EspacioService {
                 .reglas(convertirStringALista(espacio.getReglas()))
                 .config(config)
                 .fechasOcupadas(fechasOcupadas)
+                .rangosOcupados(rangosOcupados)
+                .build();
+    }
+
+    private EspacioListadoResponse mapearAListado(EspacioListadoFila fila, Long usuarioConsultanteId) {
+        Double latitudMostrada = fila.latitud();
+        Double longitudMostrada = fila.longitud();
+
+        boolean esPropietario = usuarioConsultanteId != null && usuarioConsultanteId.equals(fila.propietarioId());
+        if (fila.mostrarDireccionExacta() == VisibilidadDireccion.APROXIMADA && !esPropietario
+                && latitudMostrada != null && longitudMostrada != null) {
+            UbicacionAproximada.Coordenadas aproximada = ubicacionAproximada.difuminar(fila.id(), latitudMostrada, longitudMostrada);
+            latitudMostrada = aproximada.latitud();
+            longitudMostrada = aproximada.longitud();
+        }
+
+        return EspacioListadoResponse.builder()
+                .id(fila.id())
+                .nombre(fila.nombre())
+                .tipo(fila.tipo())
+                .precio(fila.precio())
+                .unidadPrecio(fila.unidadPrecio())
+                .imagenUrl(fila.imagenUrl())
+                .capacidadMaxima(fila.capacidadMaxima())
+                .latitud(latitudMostrada)
+                .longitud(longitudMostrada)
+                .estado(fila.estado().name())
                 .build();
     }
 
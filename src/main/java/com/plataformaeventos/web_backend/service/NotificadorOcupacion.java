@@ -0,0 +1,145 @@
+package com.plataformaeventos.web_backend.service;
+
+import com.plataformaeventos.web_backend.dto.OcupacionCambioResponse;
+import com.plataformaeventos.web_backend.event.ReservaModificadaEvent;
+import com.plataformaeventos.web_backend.event.ReservaSincronizadaEvent;
+import com.plataformaeventos.web_backend.model.Reserva;
+import com.plataformaeventos.web_backend.service.indice.OcupacionEspacios;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Envía por Server-Sent Events los cambios de ocupación de cada espacio a los
+ * calendarios que lo tienen abierto, en lugar de que el frontend consulte
+ * /api/reservas/ocupadas periódicamente.
+ *
+ * Una conexión abierta no ocupa un hilo: el {@link SseEmitter} libera el hilo de
+ * Tomcat al devolverse y sólo se escribe en él cuando hay un cambio o un latido.
+ * Los envíos se hacen en hilos virtuales, así el commit de la reserva no espera
+ * a los clientes lentos.
+ *
+ * Cada réplica avisa a sus propios suscriptores tanto de las reservas que confirma
+ * como de las que llegan de otras réplicas por {@link CanalReservas}: un calendario
+ * abierto se entera del cambio sin importar en qué réplica se hizo la reserva.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificadorOcupacion {
+
+    private static final String EVENTO_OCUPACION = "ocupacion";
+
+    private final OcupacionEspacios ocupacionEspacios;
+    private final Map<Long, Set<SseEmitter>> suscriptoresPorEspacio = new ConcurrentHashMap<>();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${ocupacion.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    /**
+     * Abre un canal para los cambios de ocupación de un espacio.
+     * El cliente vuelve a conectarse solo (EventSource) cuando vence el timeout.
+     */
+    public SseEmitter suscribir(Long espacioId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Set<SseEmitter> suscriptores = suscriptoresPorEspacio.computeIfAbsent(espacioId, id -> new CopyOnWriteArraySet<>());
+        suscriptores.add(emitter);
+
+        Runnable quitar = () -> quitar(espacioId, emitter);
+        emitter.onCompletion(quitar);
+        emitter.onTimeout(quitar);
+        emitter.onError(error -> quitar.run());
+        return emitter;
+    }
+
+    /**
+     * Corre después de que {@link OcupacionEspacios} aplicó la reserva, así el mensaje
+     * lleva el estado ya actualizado de los días afectados.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarReserva(ReservaModificadaEvent evento) {
+        notificar(evento.reserva());
+    }
+
+    /**
+     * Reservas de otras réplicas; también corre después de {@link OcupacionEspacios}.
+     */
+    @EventListener
+    public void alSincronizarReserva(ReservaSincronizadaEvent evento) {
+        notificar(evento.reserva());
+    }
+
+    private void notificar(Reserva reserva) {
+        Long espacioId = reserva.getEspacio().getId();
+        Set<SseEmitter> suscriptores = suscriptoresPorEspacio.get(espacioId);
+        if (suscriptores == null || suscriptores.isEmpty()) {
+            return;
+        }
+
+        LocalDate desde = reserva.getFechaInicio().toLocalDate();
+        LocalDate hasta = OcupacionEspacios.ultimoDiaOcupado(reserva.getFechaFin());
+        OcupacionCambioResponse cambio = OcupacionCambioResponse.builder()
+                .espacioId(espacioId)
+                .reservaId(reserva.getId())
+                .desde(desde.toString())
+                .hasta(hasta.toString())
+                .fechasOcupadas(ocupacionEspacios.diasOcupados(espacioId, desde, hasta).stream()
+                        .map(LocalDate::toString)
+                        .collect(Collectors.toList()))
+                .build();
+
+        for (SseEmitter emitter : suscriptores) {
+            envios.execute(() -> enviar(espacioId, emitter, SseEmitter.event().name(EVENTO_OCUPACION).data(cambio)));
+        }
+    }
+
+    /**
+     * Comentario vacío periódico: mantiene viva la conexión a través de proxies
+     * y detecta los clientes que se fueron sin cerrar.
+     */
+    @Scheduled(fixedDelayString = "${ocupacion.sse.latido-ms:25000}")
+    public void latido() {
+        suscriptoresPorEspacio.forEach((espacioId, suscriptores) -> {
+            for (SseEmitter emitter : suscriptores) {
+                envios.execute(() -> enviar(espacioId, emitter, SseEmitter.event().comment("")));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscriptoresPorEspacio.values().forEach(suscriptores -> suscriptores.forEach(SseEmitter::complete));
+        envios.shutdown();
+    }
+
+    private void enviar(Long espacioId, SseEmitter emitter, SseEmitter.SseEventBuilder evento) {
+        try {
+            emitter.send(evento);
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado o emitter ya completado
+            quitar(espacioId, emitter);
+        }
+    }
+
+    private void quitar(Long espacioId, SseEmitter emitter) {
+        suscriptoresPorEspacio.computeIfPresent(espacioId, (id, suscriptores) -> {
+            suscriptores.remove(emitter);
+            return suscriptores.isEmpty() ? null : suscriptores;
+        });
+    }
+}
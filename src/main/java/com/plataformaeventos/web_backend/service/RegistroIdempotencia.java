@@ -0,0 +1,144 @@
+package com.plataformaeventos.web_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformaeventos.web_backend.exception.DatosInvalidosException;
+import com.plataformaeventos.web_backend.model.ClaveIdempotencia;
+import com.plataformaeventos.web_backend.repository.ClaveIdempotenciaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Respuestas de operaciones enviadas con el header Idempotency-Key.
+ *
+ * La tabla claves_idempotencia es la fuente de verdad (compartida entre réplicas);
+ * delante hay un LRU en memoria con las claves recientes, que es donde caen casi
+ * todos los reintentos de un cliente con mala conexión.
+ *
+ * Las claves se guardan en la transacción de la operación: si la operación falla,
+ * no queda clave y el reintento vuelve a ejecutarse. Vencen a las
+ * {@code idempotencia.ttl-horas} horas.
+ */
+@Component
+@RequiredArgsConstructor
+public class RegistroIdempotencia {
+
+    private static final int MAX_EN_MEMORIA = 5000;
+    private static final int LARGO_MAXIMO_CLAVE = 100;
+
+    private final ClaveIdempotenciaRepository claveIdempotenciaRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, ClaveIdempotencia> recientes = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ClaveIdempotencia> eldest) {
+                    return size() > MAX_EN_MEMORIA;
+                }
+            });
+
+    @Value("${idempotencia.ttl-horas:24}")
+    private long ttlHoras;
+
+    /**
+     * Respuesta guardada para la clave, si existe y no venció.
+     *
+     * @throws DatosInvalidosException si la clave se usó con otra solicitud u otro usuario.
+     */
+    public <T> Optional<T> buscar(String operacion, String clave, Long usuarioId, Object solicitud, Class<T> tipo) {
+        String id = identificador(operacion, clave);
+        ClaveIdempotencia guardada = recientes.get(id);
+        if (guardada == null) {
+            guardada = claveIdempotenciaRepository.findById(id).orElse(null);
+            if (guardada == null) {
+                return Optional.empty();
+            }
+            recientes.put(id, guardada);
+        }
+        if (guardada.getExpiraEn().isBefore(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        if (!Objects.equals(guardada.getUsuarioId(), usuarioId) || !guardada.getHuella().equals(huella(solicitud))) {
+            throw new DatosInvalidosException("La Idempotency-Key ya se usó con otra solicitud.");
+        }
+        try {
+            return Optional.of(objectMapper.readValue(guardada.getRespuesta(), tipo));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo leer la respuesta guardada para la Idempotency-Key.", e);
+        }
+    }
+
+    /**
+     * Guarda la respuesta dentro de la transacción de la operación.
+     * Pasa al LRU recién después del commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void guardar(String operacion, String clave, Long usuarioId, Object solicitud, Object respuesta) {
+        LocalDateTime ahora = LocalDateTime.now();
+        ClaveIdempotencia nueva;
+        try {
+            nueva = ClaveIdempotencia.builder()
+                    .id(identificador(operacion, clave))
+                    .usuarioId(usuarioId)
+                    .huella(huella(solicitud))
+                    .respuesta(objectMapper.writeValueAsString(respuesta))
+                    .fechaCreacion(ahora)
+                    .expiraEn(ahora.plusHours(ttlHoras))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta para la Idempotency-Key.", e);
+        }
+        // save() hace merge: si quedó una clave vencida sin purgar, se reemplaza
+        claveIdempotenciaRepository.save(nueva);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recientes.put(nueva.getId(), nueva);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${idempotencia.purga-ms:3600000}")
+    @Transactional
+    public void purgarVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        claveIdempotenciaRepository.deleteVencidas(ahora);
+        synchronized (recientes) {
+            recientes.values().removeIf(clave -> clave.getExpiraEn().isBefore(ahora));
+        }
+    }
+
+    private static String identificador(String operacion, String clave) {
+        if (clave.isBlank() || clave.length() > LARGO_MAXIMO_CLAVE) {
+            throw new DatosInvalidosException("La Idempotency-Key debe tener entre 1 y " + LARGO_MAXIMO_CLAVE + " caracteres.");
+        }
+        return operacion + ":" + clave;
+    }
+
+    private String huella(Object solicitud) {
+        try {
+            byte[] json = objectMapper.writeValueAsString(solicitud).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud.", e);
+        }
+    }
+}
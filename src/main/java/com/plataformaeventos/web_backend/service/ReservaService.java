@@ -1,67 +1,197 @@
 package com.plataformaeventos.web_backend.service;
 
+import com.plataformaeventos.web_backend.dto.CotizacionLoteRequest;
+import com.plataformaeventos.web_backend.dto.CotizacionLoteResponse;
+import com.plataformaeventos.web_backend.dto.CotizacionRequest;
+import com.plataformaeventos.web_backend.dto.FranjasHorariasResponse;
+import com.plataformaeventos.web_backend.dto.CotizacionResponse;
 import com.plataformaeventos.web_backend.dto.ReservaCrearRequest;
 import com.plataformaeventos.web_backend.dto.ReservaEspacioResponse;
 import com.plataformaeventos.web_backend.dto.ReservaResponse;
 import com.plataformaeventos.web_backend.dto.ReservaUsuarioResponse;
+import com.plataformaeventos.web_backend.event.ReservaModificadaEvent;
 import com.plataformaeventos.web_backend.exception.ConflictoReservaException;
 import com.plataformaeventos.web_backend.exception.DatosInvalidosException;
 import com.plataformaeventos.web_backend.exception.RecursoNoEncontradoException;
 import com.plataformaeventos.web_backend.model.*;
 import com.plataformaeventos.web_backend.repository.EspacioRepository;
-import com.plataformaeventos.web_backend.repository.PagoRepository;
+import com.plataformaeventos.web_backend.repository.ReservaIntervaloProyeccion;
 import com.plataformaeventos.web_backend.repository.ReservaRepository;
 import com.plataformaeventos.web_backend.repository.UsuarioRepository;
+import com.plataformaeventos.web_backend.service.bandeja.BandejaSalida;
+import com.plataformaeventos.web_backend.service.bandeja.ManejadorPagoReserva;
+import com.plataformaeventos.web_backend.service.indice.GrillaFranjas;
+import com.plataformaeventos.web_backend.service.indice.OcupacionEspacios;
+import com.plataformaeventos.web_backend.service.precio.Cotizacion;
+import com.plataformaeventos.web_backend.service.precio.CotizadorPrecios;
+import com.plataformaeventos.web_backend.service.precio.PlanPrecios;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Duration;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReservaService {
 
+    /**
+     * SQLState de PostgreSQL para la violación de una restricción de exclusión
+     * (reservas_sin_solapamiento, definida en schema.sql).
+     */
+    private static final String SQLSTATE_EXCLUSION_VIOLADA = "23P01";
+
+    private static final int LIMITE_COTIZACION_LOTE = 100;
+
+    private static final int DIAS_MAXIMOS_FRANJAS = 31;
+    private static final int DIAS_MAXIMOS_POR_RESERVA = 60;
+    private static final String OPERACION_CREAR_RESERVA = "crear-reserva";
+    private static final Set<Integer> MINUTOS_POR_FRANJA_PERMITIDOS = Set.of(15, 30, 60);
+
     private final ReservaRepository reservaRepository;
     private final EspacioRepository espacioRepository;
     private final UsuarioRepository usuarioRepository;
-    private final PagoRepository pagoRepository; // Inyectamos el repositorio de pagos
+    private final BandejaSalida bandejaSalida; // Efectos secundarios (pago) fuera de la transacción de la reserva
+    private final OcupacionEspacios ocupacionEspacios;
+    private final NotificadorOcupacion notificadorOcupacion;
+    private final CoordinadorReservas coordinadorReservas;
+    private final CotizadorPrecios cotizadorPrecios;
+    private final RegistroIdempotencia registroIdempotencia;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${reservas.retencion.minutos:15}")
+    private long minutosRetencion;
 
     @Transactional
     public ReservaResponse crearReserva(ReservaCrearRequest request) {
+        return crearReserva(request, null);
+    }
 
-        Espacio espacio = espacioRepository.findById(request.getEspacioId())
-                .orElseThrow(() -> new RecursoNoEncontradoException("El espacio especificado no existe."));
+    /**
+     * Igual que {@link #crearReserva(ReservaCrearRequest)}, pero con Idempotency-Key:
+     * si la clave ya se usó, devuelve la reserva creada entonces sin validar, insertar
+     * ni cobrar de nuevo.
+     */
+    @Transactional
+    public ReservaResponse crearReserva(ReservaCrearRequest request, String claveIdempotencia) {
 
-        if (espacio.getEstado() != EstadoEspacio.PUBLICADO) {
-            throw new ConflictoReservaException("El espacio seleccionado no se encuentra activo.");
+        if (claveIdempotencia != null) {
+            Optional<ReservaResponse> previa = registroIdempotencia.buscar(OPERACION_CREAR_RESERVA, claveIdempotencia,
+                    request.getUsuarioId(), request, ReservaResponse.class);
+            if (previa.isPresent()) {
+                return previa.get();
+            }
+            // Un envío simultáneo con la misma clave espera acá y luego encuentra la respuesta
+            coordinadorReservas.bloquearClave(claveIdempotencia);
+            previa = registroIdempotencia.buscar(OPERACION_CREAR_RESERVA, claveIdempotencia,
+                    request.getUsuarioId(), request, ReservaResponse.class);
+            if (previa.isPresent()) {
+                return previa.get();
+            }
         }
 
-        Usuario usuario = null;
-        
-        // Lógica para determinar Usuario vs Invitado
-        if (request.getUsuarioId() != null) {
-            // Caso 1: Usuario Registrado
-            usuario = usuarioRepository.findById(request.getUsuarioId())
-                    .orElseThrow(() -> new RecursoNoEncontradoException("El usuario especificado no existe."));
-        } else {
-            // Caso 2: Invitado (Sin cuenta)
-            // Validar que el espacio permita invitados (opcional, si tienes esa config)
-            // if (!espacio.isPermiteInvitados()) throw ...
-
-            // Validar datos de contacto obligatorios
-            if (request.getEmailInvitado() == null || request.getNombreInvitado() == null) {
-                throw new DatosInvalidosException("Para reservar como invitado, debe proporcionar nombre y email.");
-            }
+        Usuario usuario = resolverUsuario(request);
+        Reserva guardada = reservarRango(request, usuario, EstadoReserva.CONFIRMADA, null);
+
+        registrarPago(usuario, guardada.getPrecioTotal(), guardada);
+
+        ReservaResponse respuesta = mapearAResponse(guardada);
+        if (claveIdempotencia != null) {
+            registroIdempotencia.guardar(OPERACION_CREAR_RESERVA, claveIdempotencia, request.getUsuarioId(), request, respuesta);
+        }
+        return respuesta;
+    }
+
+    /**
+     * Retiene las fechas mientras el usuario completa el pago: crea la reserva como
+     * PENDIENTE, sin cobrar, con vencimiento en {@code reservas.retencion.minutos}.
+     * Si no se confirma a tiempo, {@link VencimientoRetenciones} la cancela.
+     */
+    @Transactional
+    public ReservaResponse retenerReserva(ReservaCrearRequest request) {
+        Usuario usuario = resolverUsuario(request);
+        Reserva retenida = reservarRango(request, usuario, EstadoReserva.PENDIENTE,
+                LocalDateTime.now().plusMinutes(minutosRetencion));
+        return mapearAResponse(retenida);
+    }
+
+    /**
+     * Confirma una retención vigente y registra el pago.
+     * La fila queda bloqueada hasta el commit: el barrido de vencidas la salta y no
+     * puede cancelarla entre la verificación y la confirmación.
+     */
+    @Transactional
+    public ReservaResponse confirmarReserva(Long reservaId, Long usuarioId) {
+        Reserva reserva = reservaRepository.findParaActualizar(reservaId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("La reserva no existe."));
+
+        if (reserva.getUsuario() != null && !reserva.getUsuario().getId().equals(usuarioId)) {
+            throw new DatosInvalidosException("No tiene permisos para confirmar esta reserva.");
+        }
+        if (reserva.getEstado() == EstadoReserva.CANCELADA && reserva.getExpiraEn() != null) {
+            // La canceló el barrido de retenciones vencidas
+            throw new ConflictoReservaException("La retención de la reserva venció. Vuelva a elegir las fechas.");
+        }
+        if (reserva.getEstado() != EstadoReserva.PENDIENTE) {
+            throw new DatosInvalidosException("La reserva no está pendiente de confirmación.");
+        }
+        if (reserva.getExpiraEn() == null || reserva.getExpiraEn().isBefore(LocalDateTime.now())) {
+            throw new ConflictoReservaException("La retención de la reserva venció. Vuelva a elegir las fechas.");
+        }
+
+        reserva.setEstado(EstadoReserva.CONFIRMADA);
+        reserva.setExpiraEn(null);
+        Reserva guardada = reservaRepository.save(reserva);
+        eventPublisher.publishEvent(new ReservaModificadaEvent(guardada));
+
+        registrarPago(guardada.getUsuario(), guardada.getPrecioTotal(), guardada);
+
+        return mapearAResponse(guardada);
+    }
+
+    /**
+     * Cancela hasta {@code lote} retenciones vencidas en una transacción.
+     * Cada una publica su evento, así el calendario, el índice de solapamientos
+     * y los calendarios abiertos (SSE) liberan las fechas.
+     *
+     * @return cantidad de retenciones canceladas.
+     */
+    @Transactional
+    public int vencerRetenciones(int lote) {
+        List<Long> canceladas = reservaRepository.cancelarRetencionesVencidas(LocalDateTime.now(), lote);
+        if (canceladas.isEmpty()) {
+            return 0;
         }
+        // Se leen después del UPDATE (ya CANCELADA) sólo para publicar los eventos
+        List<Reserva> vencidas = reservaRepository.findAllById(canceladas);
+        vencidas.forEach(reserva -> eventPublisher.publishEvent(new ReservaModificadaEvent(reserva)));
+        return canceladas.size();
+    }
+
+    /**
+     * Valida, bloquea el espacio, cotiza y guarda una reserva de rango
+     * (la restricción de la base controla los solapamientos).
+     */
+    private Reserva reservarRango(ReservaCrearRequest request, Usuario usuario, EstadoReserva estado, LocalDateTime expiraEn) {
+
+        Espacio espacio = obtenerEspacioReservable(request.getEspacioId());
 
         LocalDateTime inicio = request.getFechaInicio();
         LocalDateTime fin = request.getFechaFin();
@@ -73,14 +203,138 @@ public class ReservaService {
         // Validaciones de negocio adicionales
         validarReglasDeNegocio(espacio, inicio, fin);
 
-        boolean haySolapamiento = existeSolapamiento(espacio, inicio, fin);
-        if (haySolapamiento) {
-            throw new ConflictoReservaException("El espacio no se encuentra disponible en el rango horario solicitado.");
+        // Desde acá hasta el commit, las reservas de este espacio se procesan de a una
+        // (también entre réplicas). Las de otros espacios no esperan.
+        coordinadorReservas.bloquearEspacio(espacio.getId());
+
+        // Sin consulta previa de solapamientos: los rechaza reservas_sin_solapamiento
+        // al insertar, y guardarReservas lo traduce a un conflicto
+
+        BigDecimal precioTotal = cotizadorPrecios.cotizar(espacio, inicio, fin).total();
+
+        Reserva reserva = construirReserva(espacio, usuario, request, inicio, fin, precioTotal);
+        reserva.setEstado(estado);
+        reserva.setExpiraEn(expiraEn);
+
+        return guardarReservas(List.of(reserva)).get(0);
+    }
+
+    /**
+     * Reserva varios días sueltos de un espacio POR_DIA en una sola operación atómica:
+     * un lock, una consulta de solapamientos para todos los días, un cálculo de precio
+     * (limpieza y depósito una sola vez) y un único pago.
+     *
+     * Cada día se guarda como una reserva propia (para la ocupación y la restricción de
+     * solapamiento); los cargos únicos se imputan a la primera.
+     */
+    @Transactional
+    public List<ReservaResponse> crearReservaPorDias(ReservaCrearRequest request) {
+
+        Espacio espacio = obtenerEspacioReservable(request.getEspacioId());
+        if (espacio.getModoReserva() != ModoReserva.POR_DIA) {
+            throw new DatosInvalidosException("Este espacio no admite reservas por días sueltos.");
+        }
+        Usuario usuario = resolverUsuario(request);
+
+        List<LocalDate> dias = request.getDias() == null ? List.of() : request.getDias().stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        if (dias.isEmpty() || dias.size() > DIAS_MAXIMOS_POR_RESERVA) {
+            throw new DatosInvalidosException("Debe elegir entre 1 y " + DIAS_MAXIMOS_POR_RESERVA + " días.");
+        }
+
+        List<PlanPrecios.Rango> rangos = dias.stream()
+                .map(dia -> rangoDelDia(espacio, dia))
+                .collect(Collectors.toList());
+
+        LocalDateTime primerInicio = rangos.get(0).inicio();
+        LocalDateTime ultimoFin = rangos.get(rangos.size() - 1).fin();
+        validarAnticipacion(espacio, primerInicio, ultimoFin);
+        if (espacio.getEstadiaMinima() != null && dias.size() < espacio.getEstadiaMinima()) {
+            throw new DatosInvalidosException("La estadía mínima es de " + espacio.getEstadiaMinima() + " días.");
         }
 
-        BigDecimal precioTotal = calcularPrecioTotal(espacio, inicio, fin);
+        coordinadorReservas.bloquearEspacio(espacio.getId());
 
-        Reserva reserva = Reserva.builder()
+        // Una sola consulta para todos los días: las reservas activas entre el primero y el último
+        List<ReservaIntervaloProyeccion> existentes = reservaRepository.findIntervalosActivosEntre(espacio.getId(), primerInicio, ultimoFin);
+        for (PlanPrecios.Rango rango : rangos) {
+            boolean ocupado = existentes.stream().anyMatch(existente ->
+                    existente.getFechaInicio().isBefore(rango.fin()) && existente.getFechaFin().isAfter(rango.inicio()));
+            if (ocupado) {
+                throw new ConflictoReservaException("El espacio no se encuentra disponible el día " + rango.inicio().toLocalDate() + ".");
+            }
+        }
+
+        PlanPrecios plan = cotizadorPrecios.planActualizado(espacio);
+        Cotizacion cotizacion = plan.cotizar(rangos);
+
+        List<Reserva> reservas = new ArrayList<>();
+        BigDecimal acumulado = BigDecimal.ZERO;
+        for (int i = 0; i < rangos.size(); i++) {
+            PlanPrecios.Rango rango = rangos.get(i);
+            BigDecimal precioDia = plan.cotizar(rango.inicio(), rango.fin()).alquiler();
+            acumulado = acumulado.add(precioDia);
+            reservas.add(construirReserva(espacio, usuario, request, rango.inicio(), rango.fin(), precioDia));
+        }
+        // Limpieza, depósito y redondeos van en la primera reserva, para que la suma coincida con el total
+        Reserva primera = reservas.get(0);
+        primera.setPrecioTotal(primera.getPrecioTotal().add(cotizacion.total().subtract(acumulado)));
+
+        List<Reserva> guardadas = guardarReservas(reservas);
+
+        registrarPago(usuario, cotizacion.total(), guardadas.get(0));
+
+        return guardadas.stream().map(this::mapearAResponse).collect(Collectors.toList());
+    }
+
+    private Espacio obtenerEspacioReservable(Long espacioId) {
+        Espacio espacio = espacioRepository.findById(espacioId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("El espacio especificado no existe."));
+
+        if (espacio.getEstado() != EstadoEspacio.PUBLICADO) {
+            throw new ConflictoReservaException("El espacio seleccionado no se encuentra activo.");
+        }
+        return espacio;
+    }
+
+    /**
+     * Usuario registrado que reserva, o null si es un invitado (con sus datos de contacto validados).
+     */
+    private Usuario resolverUsuario(ReservaCrearRequest request) {
+        // Lógica para determinar Usuario vs Invitado
+        if (request.getUsuarioId() != null) {
+            // Caso 1: Usuario Registrado
+            return usuarioRepository.findById(request.getUsuarioId())
+                    .orElseThrow(() -> new RecursoNoEncontradoException("El usuario especificado no existe."));
+        }
+        // Caso 2: Invitado (Sin cuenta)
+        // Validar que el espacio permita invitados (opcional, si tienes esa config)
+        // if (!espacio.isPermiteInvitados()) throw ...
+
+        // Validar datos de contacto obligatorios
+        if (request.getEmailInvitado() == null || request.getNombreInvitado() == null) {
+            throw new DatosInvalidosException("Para reservar como invitado, debe proporcionar nombre y email.");
+        }
+        return null;
+    }
+
+    /**
+     * Rango de un día suelto: del check-in al check-out si el espacio los define
+     * (y el check-out es posterior), si no el día completo.
+     */
+    private PlanPrecios.Rango rangoDelDia(Espacio espacio, LocalDate dia) {
+        LocalTime checkIn = espacio.getHoraCheckIn() != null ? espacio.getHoraCheckIn() : LocalTime.MIDNIGHT;
+        LocalTime checkOut = espacio.getHoraCheckOut();
+        LocalDateTime fin = checkOut != null && checkOut.isAfter(checkIn) ? dia.atTime(checkOut) : dia.plusDays(1).atStartOfDay();
+        return new PlanPrecios.Rango(dia.atTime(checkIn), fin);
+    }
+
+    private Reserva construirReserva(Espacio espacio, Usuario usuario, ReservaCrearRequest request,
+                                     LocalDateTime inicio, LocalDateTime fin, BigDecimal precioTotal) {
+        return Reserva.builder()
                 .espacio(espacio)
                 .usuario(usuario) // Puede ser null
                 .fechaInicio(inicio)
@@ -93,43 +347,122 @@ public class ReservaService {
                 .emailInvitado(request.getEmailInvitado())
                 .telefonoInvitado(request.getTelefonoInvitado())
                 .build();
+    }
 
-        Reserva guardada = reservaRepository.save(reserva);
+    /**
+     * Inserta las reservas y traduce la violación de reservas_sin_solapamiento a un conflicto.
+     * Publica un evento por reserva para los índices de ocupación.
+     */
+    private List<Reserva> guardarReservas(List<Reserva> reservas) {
+        List<Reserva> guardadas;
+        try {
+            guardadas = reservaRepository.saveAllAndFlush(reservas);
+        } catch (DataIntegrityViolationException e) {
+            if (esSolapamiento(e)) {
+                throw new ConflictoReservaException("El espacio no se encuentra disponible en el rango horario solicitado.");
+            }
+            throw e;
+        }
+        guardadas.forEach(guardada -> eventPublisher.publishEvent(new ReservaModificadaEvent(guardada)));
+        return guardadas;
+    }
 
+    private void registrarPago(Usuario usuario, BigDecimal monto, Reserva reserva) {
         // =================================================================
         // 2. NUEVA LÓGICA: SIMULAR EL PAGO AUTOMÁTICO (El "Hook")
         // =================================================================
         // Solo generamos pago si hay un usuario registrado (para historial)
         // Opcional: También podrías guardar pagos de invitados si quisieras
+        // El pago se encola en la bandeja de salida (mismo commit que la reserva)
+        // y lo registra ManejadorPagoReserva fuera de la solicitud.
         if (usuario != null) {
-            Pago nuevoPago = Pago.builder()
-                    .monto(guardada.getPrecioTotal())
-                    .concepto("Reserva - " + guardada.getEspacio().getNombre())
-                    .fecha(LocalDateTime.now())
-                    .metodoPago("Simulación (Saldo en cuenta)")
-                    .estado(EstadoPago.APROBADO)
-                    .tipo(TipoPago.PAGO)
-                    .usuario(usuario)
-                    .reserva(guardada)
-                    .build();
-
-            pagoRepository.save(nuevoPago);
+            bandejaSalida.registrar(TipoEventoSalida.PAGO_RESERVA, new ManejadorPagoReserva.PagoReserva(reserva.getId(), monto));
         }
         // =================================================================
+    }
 
-        return mapearAResponse(guardada);
+    /**
+     * Calcula el precio detallado de una reserva sin crearla.
+     * Usa el caché de planes y cotizaciones, así que no toca la base de datos
+     * cuando el espacio ya fue cotizado.
+     */
+    public CotizacionResponse cotizar(CotizacionRequest request) {
+        LocalDateTime inicio = request.getFechaInicio();
+        LocalDateTime fin = request.getFechaFin();
+
+        if (request.getEspacioId() == null) {
+            throw new DatosInvalidosException("Debe indicar el espacio a cotizar.");
+        }
+        if (inicio == null || fin == null || !fin.isAfter(inicio)) {
+            throw new DatosInvalidosException("El rango de fechas de la reserva no es válido.");
+        }
+
+        Cotizacion cotizacion = cotizadorPrecios.cotizar(request.getEspacioId(), inicio, fin);
+
+        return CotizacionResponse.builder()
+                .espacioId(request.getEspacioId())
+                .fechaInicio(inicio)
+                .fechaFin(fin)
+                .lineas(cotizacion.lineas().stream()
+                        .map(linea -> CotizacionResponse.Linea.builder()
+                                .concepto(linea.concepto())
+                                .cantidad(linea.cantidad())
+                                .precioUnitario(linea.precioUnitario())
+                                .importe(linea.importe())
+                                .build())
+                        .collect(Collectors.toList()))
+                .alquiler(cotizacion.alquiler())
+                .cargoLimpieza(cotizacion.cargoLimpieza())
+                .deposito(cotizacion.deposito())
+                .cobroDeposito(cotizacion.cobroDeposito())
+                .total(cotizacion.total())
+                .build();
     }
 
-    private void validarReglasDeNegocio(Espacio espacio, LocalDateTime inicio, LocalDateTime fin) {
-        // 1. Validar aviso mínimo
-        if (espacio.getAvisoMinimo() != null) {
-            long horasDeAnticipacion = ChronoUnit.HOURS.between(LocalDateTime.now(), inicio);
-            if (horasDeAnticipacion < espacio.getAvisoMinimo()) {
-                throw new DatosInvalidosException("La reserva debe hacerse con al menos " + espacio.getAvisoMinimo() + " horas de anticipación.");
-            }
+    /**
+     * Disponibilidad y precio total de varios espacios para el mismo rango, en una sola pasada.
+     *
+     * La disponibilidad sale del índice de intervalos en memoria; si el rango queda
+     * fuera de su cobertura, de una única consulta agrupada por espacio. Los precios
+     * salen del caché de planes, cargando los faltantes en una sola consulta.
+     */
+    public List<CotizacionLoteResponse> cotizarLote(CotizacionLoteRequest request) {
+        LocalDateTime inicio = request.getFechaInicio();
+        LocalDateTime fin = request.getFechaFin();
+        List<Long> espacioIds = request.getEspacioIds();
+
+        if (espacioIds == null || espacioIds.isEmpty()) {
+            return List.of();
+        }
+        if (espacioIds.size() > LIMITE_COTIZACION_LOTE) {
+            throw new DatosInvalidosException("No se pueden cotizar más de " + LIMITE_COTIZACION_LOTE + " espacios a la vez.");
+        }
+        if (inicio == null || fin == null || !fin.isAfter(inicio)) {
+            throw new DatosInvalidosException("El rango de fechas de la reserva no es válido.");
         }
 
-        // 2. Validar estadía mínima
+        Set<Long> ocupados = ocupacionEspacios.cubre(inicio)
+                ? ocupacionEspacios.espaciosConSolapamiento(espacioIds, inicio, fin)
+                : new HashSet<>(reservaRepository.findEspaciosConSolapamiento(espacioIds, inicio, fin));
+        Map<Long, Cotizacion> cotizaciones = cotizadorPrecios.cotizarVarios(espacioIds, inicio, fin);
+
+        return espacioIds.stream()
+                .distinct()
+                .map(espacioId -> {
+                    Cotizacion cotizacion = cotizaciones.get(espacioId);
+                    return CotizacionLoteResponse.builder()
+                            .espacioId(espacioId)
+                            .disponible(cotizacion != null && !ocupados.contains(espacioId))
+                            .total(cotizacion != null ? cotizacion.total() : null)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    private void validarReglasDeNegocio(Espacio espacio, LocalDateTime inicio, LocalDateTime fin) {
+        validarAnticipacion(espacio, inicio, fin);
+
+        // Validar estadía mínima
         if (espacio.getEstadiaMinima() != null) {
             if ("DIA".equalsIgnoreCase(espacio.getUnidadPrecio())) {
                 long dias = ChronoUnit.DAYS.between(inicio.toLocalDate(), fin.toLocalDate());
@@ -145,8 +478,21 @@ public class ReservaService {
                 }
             }
         }
-        
-        // 3. Validar anticipación máxima (meses)
+    }
+
+    /**
+     * Aviso mínimo (horas antes del inicio) y anticipación máxima (meses hasta el fin).
+     */
+    private void validarAnticipacion(Espacio espacio, LocalDateTime inicio, LocalDateTime fin) {
+        // 1. Validar aviso mínimo
+        if (espacio.getAvisoMinimo() != null) {
+            long horasDeAnticipacion = ChronoUnit.HOURS.between(LocalDateTime.now(), inicio);
+            if (horasDeAnticipacion < espacio.getAvisoMinimo()) {
+                throw new DatosInvalidosException("La reserva debe hacerse con al menos " + espacio.getAvisoMinimo() + " horas de anticipación.");
+            }
+        }
+
+        // 2. Validar anticipación máxima (meses)
         if (espacio.getAnticipacionMaxima() != null) {
             LocalDateTime fechaMaxima = LocalDateTime.now().plusMonths(espacio.getAnticipacionMaxima());
             if (fin.isAfter(fechaMaxima)) {
@@ -175,46 +521,16 @@ public class ReservaService {
                 .collect(Collectors.toList());
     }
 
-    private boolean existeSolapamiento(Espacio espacio, LocalDateTime inicio, LocalDateTime fin) {
-        boolean solapeConfirmadas = !reservaRepository
-                .findByEspacioAndEstadoAndFechaInicioBeforeAndFechaFinAfter(
-                        espacio,
-                        EstadoReserva.CONFIRMADA,
-                        fin,
-                        inicio
-                ).isEmpty();
-
-        boolean solapePendientes = !reservaRepository
-                .findByEspacioAndEstadoAndFechaInicioBeforeAndFechaFinAfter(
-                        espacio,
-                        EstadoReserva.PENDIENTE,
-                        fin,
-                        inicio
-                ).isEmpty();
-
-        return solapeConfirmadas || solapePendientes;
-    }
-
-    private BigDecimal calcularPrecioTotal(Espacio espacio, LocalDateTime inicio, LocalDateTime fin) {
-        String unidad = espacio.getUnidadPrecio().toUpperCase();
-
-        switch (unidad) {
-            case "DIA":
-                long dias = ChronoUnit.DAYS.between(inicio.toLocalDate(), fin.toLocalDate());
-                // Si la fecha fin es al día siguiente pero misma hora, o mayor, cuenta como día completo.
-                // Ajuste simple: si es por día, cobramos por noche o por día calendario.
-                // Asumiremos cobro por día calendario o bloque de 24h.
-                if (dias == 0) dias = 1; 
-                return espacio.getPrecio().multiply(BigDecimal.valueOf(dias)).setScale(2, RoundingMode.HALF_UP);
-            case "EVENTO":
-                return espacio.getPrecio().setScale(2, RoundingMode.HALF_UP);
-            case "HORA":
-            default:
-                Duration duracion = Duration.between(inicio, fin);
-                BigDecimal minutos = BigDecimal.valueOf(duracion.toMinutes());
-                BigDecimal horas = minutos.divide(BigDecimal.valueOf(60), 2, RoundingMode.HALF_UP);
-                return espacio.getPrecio().multiply(horas).setScale(2, RoundingMode.HALF_UP);
+    /**
+     * Indica si la excepción proviene de la restricción de exclusión entre reservas.
+     */
+    private static boolean esSolapamiento(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof SQLException sql && SQLSTATE_EXCLUSION_VIOLADA.equals(sql.getSQLState())) {
+                return true;
+            }
         }
+        return false;
     }
 
     private ReservaResponse mapearAResponse(Reserva reserva) {
@@ -227,6 +543,7 @@ public class ReservaService {
                 .precioTotal(reserva.getPrecioTotal())
                 .estado(reserva.getEstado())
                 .fechaCreacion(reserva.getFechaCreacion())
+                .expiraEn(reserva.getExpiraEn())
                 .build();
     }
 
@@ -281,45 +598,90 @@ public class ReservaService {
     }
 
     /**
-     * Obtiene una lista de todas las fechas (días) que están ocupados
-     * por reservas CONFIRMADAS o PENDIENTES para un espacio dado.
+     * Franjas horarias libres y ocupadas de un espacio que se alquila por hora,
+     * para los días entre {@code desde} y {@code hasta} (a lo sumo {@value #DIAS_MAXIMOS_FRANJAS}).
+     *
+     * Respeta horario de check-in/check-out, tiempo de preparación entre reservas,
+     * días bloqueados y aviso mínimo. Usa una única consulta de reservas por ventana.
      */
-    public List<LocalDate> obtenerFechasOcupadas(Long espacioId) {
+    @Transactional(readOnly = true)
+    public FranjasHorariasResponse obtenerFranjas(Long espacioId, LocalDate desde, LocalDate hasta, int minutosPorFranja) {
+        if (!MINUTOS_POR_FRANJA_PERMITIDOS.contains(minutosPorFranja)) {
+            throw new DatosInvalidosException("La duración de la franja debe ser de 15, 30 o 60 minutos.");
+        }
+        if (desde == null || hasta == null || hasta.isBefore(desde)
+                || ChronoUnit.DAYS.between(desde, hasta) >= DIAS_MAXIMOS_FRANJAS) {
+            throw new DatosInvalidosException("El rango de días debe ser válido y de a lo sumo " + DIAS_MAXIMOS_FRANJAS + " días.");
+        }
+
         Espacio espacio = espacioRepository.findById(espacioId)
                 .orElseThrow(() -> new RecursoNoEncontradoException("El espacio no existe."));
+        if (!"HORA".equalsIgnoreCase(espacio.getUnidadPrecio())) {
+            throw new DatosInvalidosException("Las franjas horarias sólo están disponibles para espacios que se alquilan por hora.");
+        }
 
-        // Buscamos todas las reservas futuras que no estén canceladas
-        List<Reserva> reservas = reservaRepository.findByEspacioAndEstadoAndFechaInicioBeforeAndFechaFinAfter(
-                espacio, EstadoReserva.CONFIRMADA, LocalDateTime.now().plusYears(2), LocalDateTime.now()
+        LocalDateTime ahora = LocalDateTime.now();
+        GrillaFranjas grilla = new GrillaFranjas(
+                minutosPorFranja,
+                espacio.getHoraCheckIn(),
+                espacio.getHoraCheckOut(),
+                espacio.getTiempoPreparacion(),
+                espacio.getDiasBloqueados(),
+                espacio.getAvisoMinimo() != null ? ahora.plusHours(espacio.getAvisoMinimo()) : ahora
         );
-        // Nota: La consulta de arriba es un ejemplo simplificado. 
-        // Lo ideal es buscar todas las reservas >= hoy.
-        // Usaremos una estrategia más simple: traer todas las futuras y procesarlas.
-        
-        // Mejor aproximación con los métodos que ya tenemos o podríamos tener:
-        // Vamos a buscar todas las reservas del espacio y filtrar en memoria las que nos interesan
-        // para no complicar el repositorio ahora mismo.
-        List<Reserva> todasLasReservas = reservaRepository.findByEspacioIdOrderByFechaInicioAsc(espacioId);
-        
-        List<LocalDate> fechasOcupadas = new ArrayList<>();
-        LocalDate hoy = LocalDate.now();
-
-        for (Reserva reserva : todasLasReservas) {
-            // Solo nos interesan reservas Confirmadas o Pendientes
-            if (reserva.getEstado() == EstadoReserva.CANCELADA) continue;
-            
-            // Solo reservas futuras o actuales
-            if (reserva.getFechaFin().toLocalDate().isBefore(hoy)) continue;
-
-            LocalDate inicio = reserva.getFechaInicio().toLocalDate();
-            LocalDate fin = reserva.getFechaFin().toLocalDate();
-
-            // Agregamos todos los días del rango a la lista
-            // stream().datesUntil es muy útil aquí (Java 9+)
-            inicio.datesUntil(fin.plusDays(1)).forEach(fechasOcupadas::add);
-        }
-
-        return fechasOcupadas.stream().distinct().collect(Collectors.toList());
+
+        // Las reservas que terminan poco antes de la ventana también cuentan por la preparación
+        long preparacion = espacio.getTiempoPreparacion() != null ? Math.max(espacio.getTiempoPreparacion(), 0) : 0;
+        List<GrillaFranjas.Intervalo> reservas = reservaRepository.findIntervalosActivosEntre(
+                        espacioId,
+                        desde.atStartOfDay().minusMinutes(preparacion),
+                        hasta.plusDays(1).atStartOfDay().plusMinutes(preparacion))
+                .stream()
+                .map(reserva -> new GrillaFranjas.Intervalo(reserva.getFechaInicio(), reserva.getFechaFin()))
+                .collect(Collectors.toList());
+
+        return FranjasHorariasResponse.builder()
+                .espacioId(espacioId)
+                .minutosPorFranja(minutosPorFranja)
+                .dias(grilla.calcular(desde, hasta, reservas).stream()
+                        .map(dia -> FranjasHorariasResponse.Dia.builder()
+                                .fecha(dia.fecha())
+                                .bloqueado(dia.bloqueado())
+                                .franjas(dia.franjas().stream()
+                                        .map(franja -> FranjasHorariasResponse.Franja.builder()
+                                                .inicio(franja.inicio())
+                                                .fin(franja.fin())
+                                                .disponible(franja.disponible())
+                                                .build())
+                                        .collect(Collectors.toList()))
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    /**
+     * Obtiene una lista de todas las fechas (días) que están ocupados
+     * por reservas CONFIRMADAS o PENDIENTES para un espacio dado, dentro
+     * de la ventana [desde, hasta] (por defecto, desde hoy en adelante).
+     * Se leen del calendario de ocupación en memoria, sin recorrer el historial;
+     * las reservas de otras réplicas llegan a él al hacer commit (ver {@link CanalReservas}).
+     */
+    public List<LocalDate> obtenerFechasOcupadas(Long espacioId, LocalDate desde, LocalDate hasta) {
+        if (!espacioRepository.existsById(espacioId)) {
+            throw new RecursoNoEncontradoException("El espacio no existe.");
+        }
+
+        return ocupacionEspacios.diasOcupados(espacioId, desde, hasta);
+    }
+
+    /**
+     * Abre un canal SSE con los cambios de ocupación del espacio.
+     */
+    public SseEmitter suscribirOcupacion(Long espacioId) {
+        if (!espacioRepository.existsById(espacioId)) {
+            throw new RecursoNoEncontradoException("El espacio no existe.");
+        }
+        return notificadorOcupacion.suscribir(espacioId);
     }
 
     @Transactional
@@ -339,5 +701,6 @@ public class ReservaService {
         reserva.setEstado(EstadoReserva.CANCELADA);
 
         reservaRepository.save(reserva);
+        eventPublisher.publishEvent(new ReservaModificadaEvent(reserva));
     }
 }
\ No newline at end of file
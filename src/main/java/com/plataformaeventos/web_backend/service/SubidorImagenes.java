@@ -0,0 +1,168 @@
+package com.plataformaeventos.web_backend.service;
+
+import com.plataformaeventos.web_backend.model.TipoEventoSalida;
+import com.plataformaeventos.web_backend.service.CloudinaryService.ImagenSubida;
+import com.plataformaeventos.web_backend.service.bandeja.BandejaSalida;
+import com.plataformaeventos.web_backend.service.bandeja.ManejadorEliminarImagen.ImagenAEliminar;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sube varias imágenes a Cloudinary en paralelo, en hilos virtuales.
+ *
+ * Con 10 fotos, el tiempo pasa de la suma de las subidas a aproximadamente la más lenta.
+ * Las subidas simultáneas se limitan con {@code imagenes.subidas-simultaneas} (todas las
+ * solicitudes comparten el límite) y, si una falla, se cancelan las que quedan y se
+ * eliminan las que ya habían terminado, para no dejar imágenes huérfanas en Cloudinary.
+ *
+ * Las eliminaciones no se hacen en la solicitud: se encolan como trabajos
+ * {@link TipoEventoSalida#ELIMINAR_IMAGEN} de prioridad baja en la {@link BandejaSalida},
+ * que los reintenta si Cloudinary falla.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubidorImagenes {
+
+    private final CloudinaryService cloudinaryService;
+    private final BandejaSalida bandejaSalida;
+    private final ExecutorService subidas = Executors.newVirtualThreadPerTaskExecutor();
+    private Semaphore permisos;
+
+    @Value("${imagenes.subidas-simultaneas:8}")
+    private int subidasSimultaneas;
+
+    /**
+     * Cuánto sigue existiendo una imagen quitada de una galería, para que las páginas
+     * y cachés que todavía muestran la galería anterior no queden con imágenes rotas.
+     */
+    @Value("${imagenes.eliminacion-demora-minutos:10}")
+    private long demoraEliminacionMinutos;
+
+    @PostConstruct
+    public void iniciar() {
+        permisos = new Semaphore(subidasSimultaneas);
+    }
+
+    /**
+     * Sube los archivos y devuelve sus URLs (con sus public_id) en el mismo orden.
+     *
+     * @throws IOException con la causa de la primera subida que falló.
+     */
+    public List<ImagenSubida> subir(List<MultipartFile> archivos) throws IOException {
+        Lote lote = new Lote();
+        List<Future<ImagenSubida>> pendientes = new ArrayList<>(archivos.size());
+        for (MultipartFile archivo : archivos) {
+            pendientes.add(subidas.submit(() -> {
+                permisos.acquire();
+                ImagenSubida subida;
+                try {
+                    subida = cloudinaryService.subir(archivo);
+                } finally {
+                    permisos.release();
+                }
+                lote.agregar(subida);
+                return subida;
+            }));
+        }
+
+        List<ImagenSubida> resultado = new ArrayList<>(archivos.size());
+        try {
+            for (Future<ImagenSubida> pendiente : pendientes) {
+                resultado.add(pendiente.get());
+            }
+        } catch (ExecutionException e) {
+            abortar(lote, pendientes);
+            throw e.getCause() instanceof IOException io ? io : new IOException("No se pudo subir una imagen.", e.getCause());
+        } catch (InterruptedException e) {
+            abortar(lote, pendientes);
+            Thread.currentThread().interrupt();
+            throw new IOException("Subida de imágenes interrumpida.", e);
+        }
+        return resultado;
+    }
+
+    /**
+     * Elimina de Cloudinary imágenes que no llegaron a guardarse (por ejemplo, porque la
+     * transacción que las referenciaba falló), sin demora.
+     *
+     * Si ni siquiera se puede encolar (la base de datos suele ser la causa de la falla),
+     * se intenta eliminarlas directamente en segundo plano; un error sólo se registra.
+     */
+    public void descartar(List<ImagenSubida> imagenes) {
+        for (ImagenSubida imagen : imagenes) {
+            try {
+                bandejaSalida.encolar(TipoEventoSalida.ELIMINAR_IMAGEN, new ImagenAEliminar(imagen.publicId()),
+                        BandejaSalida.PRIORIDAD_BAJA, Duration.ZERO);
+            } catch (RuntimeException e) {
+                subidas.submit(() -> {
+                    try {
+                        cloudinaryService.eliminarImagen(imagen.publicId());
+                    } catch (Exception error) {
+                        System.out.println("⚠️ No se pudo eliminar la imagen huérfana " + imagen.publicId() + ": " + error.getMessage());
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Programa la eliminación de imágenes quitadas de una galería, en la transacción actual
+     * (sólo se eliminan si el cambio hace commit) y con {@code imagenes.eliminacion-demora-minutos}
+     * de demora.
+     */
+    public void programarEliminacion(Collection<String> publicIds) {
+        Duration demora = Duration.ofMinutes(demoraEliminacionMinutos);
+        for (String publicId : publicIds) {
+            bandejaSalida.encolar(TipoEventoSalida.ELIMINAR_IMAGEN, new ImagenAEliminar(publicId),
+                    BandejaSalida.PRIORIDAD_BAJA, demora);
+        }
+    }
+
+    private void abortar(Lote lote, List<Future<ImagenSubida>> pendientes) {
+        pendientes.forEach(pendiente -> pendiente.cancel(true));
+        descartar(lote.abortar());
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        subidas.shutdown();
+    }
+
+    /**
+     * Subidas terminadas de una misma llamada. Una subida que termina después de abortado
+     * el lote (la cancelación no siempre corta la petición HTTP) se descarta sola.
+     */
+    private final class Lote {
+
+        private final List<ImagenSubida> terminadas = new ArrayList<>();
+        private boolean abortado;
+
+        synchronized void agregar(ImagenSubida subida) {
+            if (abortado) {
+                descartar(List.of(subida));
+            } else {
+                terminadas.add(subida);
+            }
+        }
+
+        synchronized List<ImagenSubida> abortar() {
+            abortado = true;
+            return List.copyOf(terminadas);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.plataformaeventos.web_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Barrido periódico que cancela las retenciones (reservas PENDIENTE) vencidas,
+ * para que un checkout abandonado no deje fechas bloqueadas para siempre.
+ *
+ * Procesa de a lotes, cada uno en su propia transacción, hasta que no quedan
+ * vencidas. Cada lote lee sólo el índice parcial de pendientes por vencimiento.
+ */
+@Component
+@RequiredArgsConstructor
+public class VencimientoRetenciones {
+
+    private static final int LOTE = 200;
+
+    private final ReservaService reservaService;
+
+    @Scheduled(fixedDelayString = "${reservas.retencion.barrido-ms:30000}")
+    public void barrer() {
+        int total = 0;
+        int canceladas;
+        do {
+            canceladas = reservaService.vencerRetenciones(LOTE);
+            total += canceladas;
+        } while (canceladas == LOTE);
+
+        if (total > 0) {
+            System.out.println("⌛ Retenciones vencidas canceladas: " + total);
+        }
+    }
+}
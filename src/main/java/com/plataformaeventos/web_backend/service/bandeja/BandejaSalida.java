@@ -0,0 +1,130 @@
+package com.plataformaeventos.web_backend.service.bandeja;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformaeventos.web_backend.model.EstadoEventoSalida;
+import com.plataformaeventos.web_backend.model.EventoSalida;
+import com.plataformaeventos.web_backend.model.TipoEventoSalida;
+import com.plataformaeventos.web_backend.repository.EventoSalidaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bandeja de salida (transactional outbox) para los efectos secundarios de una operación,
+ * y cola de trabajos persistente en PostgreSQL (sin broker) para el trabajo lento.
+ *
+ * {@link #registrar} guarda el evento dentro de la transacción de la operación: la
+ * operación sólo paga un INSERT, y el evento existe únicamente si hizo commit.
+ * {@link #encolar} además admite prioridad y ejecución diferida.
+ * {@link #procesarLote} lo ejecuta después, fuera del camino de la solicitud,
+ * con reintentos y espera exponencial; los que agotan los reintentos quedan FALLIDO.
+ */
+@Component
+public class BandejaSalida {
+
+    public static final int PRIORIDAD_NORMAL = 0;
+
+    /**
+     * Mantenimiento que puede esperar (por ejemplo, limpiar imágenes): no demora los pagos.
+     */
+    public static final int PRIORIDAD_BAJA = -10;
+
+    private static final int MAX_INTENTOS = 8;
+    private static final Duration ESPERA_BASE = Duration.ofSeconds(5);
+    private static final Duration ESPERA_MAXIMA = Duration.ofMinutes(30);
+
+    private final EventoSalidaRepository eventoSalidaRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<TipoEventoSalida, ManejadorEvento> manejadores = new EnumMap<>(TipoEventoSalida.class);
+
+    public BandejaSalida(EventoSalidaRepository eventoSalidaRepository, ObjectMapper objectMapper, List<ManejadorEvento> manejadores) {
+        this.eventoSalidaRepository = eventoSalidaRepository;
+        this.objectMapper = objectMapper;
+        manejadores.forEach(manejador -> this.manejadores.put(manejador.tipo(), manejador));
+    }
+
+    /**
+     * Encola un evento en la transacción actual, para que exista sólo si la operación hace commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoSalida tipo, Object payload) {
+        guardar(tipo, payload, PRIORIDAD_NORMAL, Duration.ZERO);
+    }
+
+    /**
+     * Encola un trabajo (en la transacción actual, si hay una).
+     *
+     * @param prioridad mayor se procesa antes; {@link #PRIORIDAD_NORMAL} por defecto.
+     * @param demora    no se ejecuta antes de que pase este tiempo.
+     */
+    @Transactional
+    public void encolar(TipoEventoSalida tipo, Object payload, int prioridad, Duration demora) {
+        guardar(tipo, payload, prioridad, demora);
+    }
+
+    private void guardar(TipoEventoSalida tipo, Object payload, int prioridad, Duration demora) {
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            eventoSalidaRepository.save(EventoSalida.builder()
+                    .tipo(tipo)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .estado(EstadoEventoSalida.PENDIENTE)
+                    .prioridad(prioridad)
+                    .intentos(0)
+                    .proximoIntento(ahora.plus(demora))
+                    .fechaCreacion(ahora)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + tipo + ".", e);
+        }
+    }
+
+    /**
+     * Procesa hasta {@code lote} eventos listos. Las filas quedan bloqueadas (SKIP LOCKED)
+     * hasta el commit, así que otras réplicas toman otros eventos.
+     *
+     * Cada manejador corre en su propia transacción: si falla, sólo ese evento
+     * se reprograma y el resto del lote sigue.
+     *
+     * @return cantidad de eventos tomados.
+     */
+    @Transactional
+    public int procesarLote(int lote) {
+        List<EventoSalida> eventos = eventoSalidaRepository.tomarLote(LocalDateTime.now(), lote);
+        for (EventoSalida evento : eventos) {
+            try {
+                ManejadorEvento manejador = manejadores.get(evento.getTipo());
+                if (manejador == null) {
+                    throw new IllegalStateException("No hay manejador para " + evento.getTipo());
+                }
+                manejador.manejar(evento.getPayload());
+                eventoSalidaRepository.delete(evento);
+            } catch (Exception e) {
+                reprogramar(evento, e);
+            }
+        }
+        return eventos.size();
+    }
+
+    private void reprogramar(EventoSalida evento, Exception error) {
+        int intentos = evento.getIntentos() + 1;
+        evento.setIntentos(intentos);
+        String mensaje = String.valueOf(error.getMessage());
+        evento.setUltimoError(mensaje.length() > 1000 ? mensaje.substring(0, 1000) : mensaje);
+        if (intentos >= MAX_INTENTOS) {
+            evento.setEstado(EstadoEventoSalida.FALLIDO);
+            System.out.println("❌ Evento " + evento.getTipo() + " #" + evento.getId() + " descartado tras " + intentos + " intentos: " + evento.getUltimoError());
+            return;
+        }
+        // 5 s, 10 s, 20 s... hasta 30 min
+        Duration espera = ESPERA_BASE.multipliedBy(1L << (intentos - 1));
+        evento.setProximoIntento(LocalDateTime.now().plus(espera.compareTo(ESPERA_MAXIMA) > 0 ? ESPERA_MAXIMA : espera));
+    }
+}
@@ -0,0 +1,127 @@
+package com.plataformaeventos.web_backend.service.bandeja;
+
+import com.plataformaeventos.web_backend.model.EstadoEventoSalida;
+import com.plataformaeventos.web_backend.repository.EventoSalidaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vacía periódicamente la {@link BandejaSalida} con varios trabajadores en hilos
+ * virtuales. Cada uno toma lotes hasta que no quedan eventos listos; SKIP LOCKED
+ * reparte las filas entre trabajadores (y entre réplicas) sin que se esperen.
+ *
+ * El método programado no espera a los trabajadores: sólo los lanza y vuelve, para no
+ * retener el hilo del planificador que comparten todas las tareas {@code @Scheduled}.
+ * Mientras una ronda sigue en curso, las siguientes ejecuciones no lanzan otra.
+ *
+ * Publica en /actuator/metrics:
+ *  - bandeja.pendientes → eventos listos para procesar (profundidad de la cola).
+ *  - bandeja.retraso    → segundos que lleva esperando el evento listo más antiguo.
+ *  - bandeja.fallidos   → eventos que agotaron los reintentos.
+ */
+@Component
+public class DespachadorBandeja {
+
+    private static final int LOTE = 50;
+
+    private final BandejaSalida bandejaSalida;
+    private final EventoSalidaRepository eventoSalidaRepository;
+    private final ExecutorService trabajadores = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicLong retrasoSegundos = new AtomicLong();
+    private final AtomicLong fallidos = new AtomicLong();
+
+    /**
+     * Cada trabajador usa una conexión mientras procesa su lote: no conviene superar el pool.
+     */
+    @Value("${bandeja.trabajadores:4}")
+    private int cantidadTrabajadores;
+
+    public DespachadorBandeja(BandejaSalida bandejaSalida, EventoSalidaRepository eventoSalidaRepository, MeterRegistry meterRegistry) {
+        this.bandejaSalida = bandejaSalida;
+        this.eventoSalidaRepository = eventoSalidaRepository;
+        Gauge.builder("bandeja.pendientes", pendientes, AtomicLong::get)
+                .description("Eventos de la bandeja de salida listos para procesar")
+                .register(meterRegistry);
+        Gauge.builder("bandeja.retraso", retrasoSegundos, AtomicLong::get)
+                .description("Segundos de espera del evento listo más antiguo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("bandeja.fallidos", fallidos, AtomicLong::get)
+                .description("Eventos que agotaron los reintentos")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${bandeja.despacho-ms:1000}")
+    public void despachar() {
+        if (!enCurso.compareAndSet(false, true)) {
+            return; // La ronda anterior todavía está vaciando la bandeja
+        }
+        try {
+            trabajadores.submit(() -> {
+                try {
+                    vaciar();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    System.out.println("⚠️ Error al despachar la bandeja de salida: " + e.getMessage());
+                } finally {
+                    enCurso.set(false);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            enCurso.set(false);
+            throw e;
+        }
+    }
+
+    private void vaciar() throws InterruptedException {
+        actualizarMetricas();
+        if (pendientes.get() == 0) {
+            return;
+        }
+
+        List<Callable<Void>> tareas = new ArrayList<>();
+        for (int i = 0; i < cantidadTrabajadores; i++) {
+            tareas.add(() -> {
+                int procesados;
+                do {
+                    procesados = bandejaSalida.procesarLote(LOTE);
+                } while (procesados == LOTE);
+                return null;
+            });
+        }
+        // Los errores de un manejador ya se registran en el evento; acá sólo se espera a que terminen
+        trabajadores.invokeAll(tareas);
+        actualizarMetricas();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        trabajadores.shutdown();
+    }
+
+    private void actualizarMetricas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        pendientes.set(eventoSalidaRepository.contarListos(ahora));
+        LocalDateTime masAntiguo = eventoSalidaRepository.listoMasAntiguo(ahora);
+        retrasoSegundos.set(masAntiguo == null ? 0 : Duration.between(masAntiguo, ahora).toSeconds());
+        fallidos.set(eventoSalidaRepository.countByEstado(EstadoEventoSalida.FALLIDO));
+    }
+}
@@ -0,0 +1,38 @@
+package com.plataformaeventos.web_backend.service.bandeja;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformaeventos.web_backend.model.TipoEventoSalida;
+import com.plataformaeventos.web_backend.service.CloudinaryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Elimina de Cloudinary las imágenes que ningún espacio referencia: las que quitó
+ * el propietario de la galería y las subidas cuya transacción no se confirmó.
+ *
+ * Idempotente: eliminar una imagen que ya no existe no es un error.
+ */
+@Component
+@RequiredArgsConstructor
+public class ManejadorEliminarImagen implements ManejadorEvento {
+
+    /**
+     * Payload de {@link TipoEventoSalida#ELIMINAR_IMAGEN}.
+     */
+    public record ImagenAEliminar(String publicId) {
+    }
+
+    private final CloudinaryService cloudinaryService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public TipoEventoSalida tipo() {
+        return TipoEventoSalida.ELIMINAR_IMAGEN;
+    }
+
+    @Override
+    public void manejar(String payload) throws Exception {
+        ImagenAEliminar datos = objectMapper.readValue(payload, ImagenAEliminar.class);
+        cloudinaryService.eliminarImagen(datos.publicId());
+    }
+}
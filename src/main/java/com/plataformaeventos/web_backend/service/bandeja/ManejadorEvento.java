@@ -0,0 +1,17 @@
+package com.plataformaeventos.web_backend.service.bandeja;
+
+import com.plataformaeventos.web_backend.model.TipoEventoSalida;
+
+/**
+ * Procesa los eventos de un tipo de la bandeja de salida.
+ *
+ * Un evento puede entregarse más de una vez (por ejemplo, si la réplica cae después
+ * de procesarlo y antes de borrarlo), así que el manejador debe ser idempotente.
+ * Lanzar una excepción programa un reintento.
+ */
+public interface ManejadorEvento {
+
+    TipoEventoSalida tipo();
+
+    void manejar(String payload) throws Exception;
+}
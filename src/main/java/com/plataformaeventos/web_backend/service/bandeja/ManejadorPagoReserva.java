@@ -0,0 +1,66 @@
+package com.plataformaeventos.web_backend.service.bandeja;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.plataformaeventos.web_backend.model.*;
+import com.plataformaeventos.web_backend.repository.PagoRepository;
+import com.plataformaeventos.web_backend.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Registra el pago simulado de una reserva confirmada (antes se hacía dentro de la
+ * transacción de la reserva).
+ */
+@Component
+@RequiredArgsConstructor
+public class ManejadorPagoReserva implements ManejadorEvento {
+
+    /**
+     * Payload de {@link TipoEventoSalida#PAGO_RESERVA}.
+     */
+    public record PagoReserva(Long reservaId, BigDecimal monto) {
+    }
+
+    private final ReservaRepository reservaRepository;
+    private final PagoRepository pagoRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public TipoEventoSalida tipo() {
+        return TipoEventoSalida.PAGO_RESERVA;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void manejar(String payload) throws Exception {
+        PagoReserva datos = objectMapper.readValue(payload, PagoReserva.class);
+
+        // Idempotente: una reentrega no genera un segundo pago
+        if (pagoRepository.existsByReservaIdAndTipo(datos.reservaId(), TipoPago.PAGO)) {
+            return;
+        }
+        Reserva reserva = reservaRepository.findById(datos.reservaId())
+                .orElseThrow(() -> new IllegalStateException("La reserva " + datos.reservaId() + " no existe."));
+        if (reserva.getUsuario() == null) {
+            return; // Invitados: sin historial de pagos
+        }
+
+        Pago nuevoPago = Pago.builder()
+                .monto(datos.monto())
+                .concepto("Reserva - " + reserva.getEspacio().getNombre())
+                .fecha(LocalDateTime.now())
+                .metodoPago("Simulación (Saldo en cuenta)")
+                .estado(EstadoPago.APROBADO)
+                .tipo(TipoPago.PAGO)
+                .usuario(reserva.getUsuario())
+                .reserva(reserva)
+                .build();
+
+        pagoRepository.save(nuevoPago);
+    }
+}
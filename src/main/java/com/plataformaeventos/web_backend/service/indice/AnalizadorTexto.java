@@ -0,0 +1,97 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Análisis de texto en español para los índices de búsqueda en memoria.
+ *
+ * Normaliza (minúsculas y sin tildes), separa en palabras, descarta
+ * palabras vacías y aplica una reducción simple de plurales, de forma que
+ * "Salones" y "salón" terminen en el mismo término.
+ */
+public final class AnalizadorTexto {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^a-z0-9ñ]+");
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "a", "al", "algo", "ante", "antes", "como", "con", "contra", "cual", "cuando",
+            "de", "del", "desde", "donde", "durante", "e", "el", "ella", "ellos", "en",
+            "entre", "es", "esa", "ese", "eso", "esta", "estas", "este", "esto", "estos",
+            "hasta", "hay", "la", "las", "le", "les", "lo", "los", "mas", "me", "mi",
+            "muy", "ni", "no", "nos", "o", "otra", "otro", "para", "pero", "poco", "por",
+            "porque", "que", "quien", "se", "ser", "si", "sin", "sobre", "son", "su", "sus",
+            "te", "tambien", "todo", "todos", "tu", "un", "una", "uno", "unos", "y", "ya"
+    );
+
+    private AnalizadorTexto() {
+    }
+
+    /**
+     * Pasa el texto a minúsculas y elimina tildes y diéresis, conservando la ñ.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String minusculas = texto.toLowerCase(Locale.ROOT).replace('ñ', '\u0001');
+        String sinTildes = DIACRITICOS.matcher(Normalizer.normalize(minusculas, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.replace('\u0001', 'ñ');
+    }
+
+    /**
+     * Convierte un texto libre en la lista de términos indexables.
+     */
+    public static List<String> terminos(String texto) {
+        List<String> terminos = new ArrayList<>();
+        for (String palabra : SEPARADORES.split(normalizar(texto))) {
+            if (palabra.length() < 2 || PALABRAS_VACIAS.contains(palabra)) {
+                continue;
+            }
+            terminos.add(raiz(palabra));
+        }
+        return terminos;
+    }
+
+    /**
+     * Palabras normalizadas del texto, sin palabras vacías ni reducción de plurales.
+     * Se usa para la búsqueda tolerante a errores, que compara palabras completas.
+     */
+    public static List<String> palabras(String texto) {
+        List<String> palabras = new ArrayList<>();
+        for (String palabra : SEPARADORES.split(normalizar(texto))) {
+            if (palabra.length() < 3 || PALABRAS_VACIAS.contains(palabra)) {
+                continue;
+            }
+            palabras.add(palabra);
+        }
+        return palabras;
+    }
+
+    /**
+     * Reducción liviana de plurales del español:
+     * "luces" → "luz", "salones" → "salon", "quinchos" → "quincho".
+     */
+    static String raiz(String palabra) {
+        int largo = palabra.length();
+        if (largo > 4 && palabra.endsWith("ces")) {
+            return palabra.substring(0, largo - 3) + "z";
+        }
+        if (largo > 4 && palabra.endsWith("es") && !esVocal(palabra.charAt(largo - 3))) {
+            return palabra.substring(0, largo - 2);
+        }
+        if (largo > 3 && palabra.endsWith("s") && esVocal(palabra.charAt(largo - 2))) {
+            return palabra.substring(0, largo - 1);
+        }
+        return palabra;
+    }
+
+    private static boolean esVocal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
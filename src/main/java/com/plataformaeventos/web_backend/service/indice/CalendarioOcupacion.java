@@ -0,0 +1,282 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Calendario de días ocupados por espacio, como un bitset indexado por día.
+ *
+ * El día 0 es la fecha de origen del calendario y se cubre un horizonte de
+ * {@link #HORIZONTE_DIAS} días hacia adelante: un espacio con años de reservas
+ * ocupa unos pocos cientos de bytes en lugar de miles de Strings.
+ *
+ * Varias reservas pueden compartir un día (por ejemplo, reservas por hora),
+ * así que los días con más de una reserva se cuentan aparte para que cancelar
+ * una de ellas no libere el día.
+ */
+public class CalendarioOcupacion {
+
+    /**
+     * Días cubiertos desde el origen (≈ 3 años). Las reservas más lejanas se recortan.
+     */
+    public static final int HORIZONTE_DIAS = 3 * 366;
+
+    private static final class Ocupacion {
+        private final BitSet dias = new BitSet();
+        private final Map<Integer, Integer> reservasExtra = new HashMap<>(); // Día → reservas además de la primera
+    }
+
+    private record Rango(Long espacioId, int desde, int hasta) {
+    }
+
+    /**
+     * Días ocupados consecutivos, ambos extremos incluidos.
+     */
+    public record Tramo(LocalDate desde, LocalDate hasta) {
+    }
+
+    private LocalDate origen;
+    private final Map<Long, Ocupacion> ocupacionPorEspacio = new HashMap<>();
+    private final Map<Long, Rango> rangosPorReserva = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param origen primer día representado; los días anteriores se descartan.
+     */
+    public CalendarioOcupacion(LocalDate origen) {
+        this.origen = origen;
+    }
+
+    /**
+     * Registra (o vuelve a registrar) los días de una reserva, ambos extremos incluidos.
+     */
+    public void guardar(Long reservaId, Long espacioId, LocalDate desde, LocalDate hasta) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(reservaId);
+
+            int indiceDesde = Math.max(indice(desde), 0);
+            int indiceHasta = Math.min(indice(hasta), HORIZONTE_DIAS - 1);
+            if (indiceDesde > indiceHasta) {
+                return;
+            }
+
+            Ocupacion ocupacion = ocupacionPorEspacio.computeIfAbsent(espacioId, id -> new Ocupacion());
+            for (int dia = indiceDesde; dia <= indiceHasta; dia++) {
+                if (ocupacion.dias.get(dia)) {
+                    ocupacion.reservasExtra.merge(dia, 1, Integer::sum);
+                } else {
+                    ocupacion.dias.set(dia);
+                }
+            }
+            rangosPorReserva.put(reservaId, new Rango(espacioId, indiceDesde, indiceHasta));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long reservaId) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(reservaId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido del calendario por el de otro ya construido,
+     * incluido su origen (así la reconstrucción periódica descarta los días pasados).
+     */
+    public void reemplazarPor(CalendarioOcupacion otro) {
+        lock.writeLock().lock();
+        try {
+            origen = otro.origen;
+            ocupacionPorEspacio.clear();
+            ocupacionPorEspacio.putAll(otro.ocupacionPorEspacio);
+            rangosPorReserva.clear();
+            rangosPorReserva.putAll(otro.rangosPorReserva);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int cantidadEspacios() {
+        lock.readLock().lock();
+        try {
+            return ocupacionPorEspacio.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si [desde, hasta] cae completo dentro de los días representados.
+     */
+    public boolean cubre(LocalDate desde, LocalDate hasta) {
+        lock.readLock().lock();
+        try {
+            return indice(desde) >= 0 && indice(hasta) < HORIZONTE_DIAS;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Días ocupados de un espacio entre {@code desde} y {@code hasta} (ambos incluidos), en orden.
+     * Los días fuera del horizonte no se reportan.
+     */
+    public List<LocalDate> diasOcupados(Long espacioId, LocalDate desde, LocalDate hasta) {
+        List<LocalDate> dias = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Ocupacion ocupacion = ocupacionPorEspacio.get(espacioId);
+            if (ocupacion == null) {
+                return dias;
+            }
+            int ultimo = indice(hasta);
+            for (int dia = ocupacion.dias.nextSetBit(Math.max(indice(desde), 0)); dia >= 0 && dia <= ultimo; dia = ocupacion.dias.nextSetBit(dia + 1)) {
+                dias.add(origen.plusDays(dia));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return dias;
+    }
+
+    /**
+     * Igual que {@link #diasOcupados}, pero agrupando los días consecutivos en tramos.
+     * Recorre el bitset de tramo en tramo, sin generar un objeto por día.
+     */
+    public List<Tramo> tramosOcupados(Long espacioId, LocalDate desde, LocalDate hasta) {
+        List<Tramo> tramos = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Ocupacion ocupacion = ocupacionPorEspacio.get(espacioId);
+            if (ocupacion == null) {
+                return tramos;
+            }
+            int ultimo = indice(hasta);
+            for (int inicio = ocupacion.dias.nextSetBit(Math.max(indice(desde), 0)); inicio >= 0 && inicio <= ultimo;
+                 inicio = ocupacion.dias.nextSetBit(inicio)) {
+                int fin = Math.min(ocupacion.dias.nextClearBit(inicio) - 1, ultimo);
+                tramos.add(new Tramo(origen.plusDays(inicio), origen.plusDays(fin)));
+                inicio = fin + 1;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return tramos;
+    }
+
+    /**
+     * Espacios con reservas que no tienen ninguna ventana libre de {@code dias} días
+     * consecutivos, empezando en alguno de {@code diasDeInicio}, dentro de [desde, hasta].
+     * Los espacios sin reservas no aparecen: siempre tienen ventanas libres.
+     */
+    public Set<Long> espaciosSinVentanaLibre(LocalDate desde, LocalDate hasta, int dias, Set<DayOfWeek> diasDeInicio) {
+        Set<Long> sinVentana = new HashSet<>();
+
+        lock.readLock().lock();
+        try {
+            int primero = Math.max(indice(desde), 0);
+            int cantidad = Math.min(indice(hasta), HORIZONTE_DIAS - 1) - primero + 1;
+            BitSet candidatos = candidatos(primero, cantidad, diasDeInicio);
+            for (Map.Entry<Long, Ocupacion> entrada : ocupacionPorEspacio.entrySet()) {
+                if (primerInicioLibre(entrada.getValue(), primero, cantidad, dias, candidatos) < 0) {
+                    sinVentana.add(entrada.getKey());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return sinVentana;
+    }
+
+    /**
+     * Primer día en [desde, hasta] donde empieza una ventana libre de {@code dias} días
+     * consecutivos, con inicio en alguno de {@code diasDeInicio}; null si no hay.
+     */
+    public LocalDate primeraVentanaLibre(Long espacioId, LocalDate desde, LocalDate hasta, int dias, Set<DayOfWeek> diasDeInicio) {
+        lock.readLock().lock();
+        try {
+            int primero = Math.max(indice(desde), 0);
+            int cantidad = Math.min(indice(hasta), HORIZONTE_DIAS - 1) - primero + 1;
+            BitSet candidatos = candidatos(primero, cantidad, diasDeInicio);
+            int inicio = primerInicioLibre(ocupacionPorEspacio.get(espacioId), primero, cantidad, dias, candidatos);
+            return inicio >= 0 ? origen.plusDays(primero + inicio) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Días (relativos a {@code primero}) en los que puede empezar una ventana.
+     */
+    private BitSet candidatos(int primero, int cantidad, Set<DayOfWeek> diasDeInicio) {
+        BitSet candidatos = new BitSet(Math.max(cantidad, 0));
+        for (int dia = 0; dia < cantidad; dia++) {
+            if (diasDeInicio.contains(origen.plusDays(primero + dia).getDayOfWeek())) {
+                candidatos.set(dia);
+            }
+        }
+        return candidatos;
+    }
+
+    /**
+     * Con operaciones de bits: libres tiene un 1 por día sin reservas; el AND de libres
+     * desplazado 0..dias-1 posiciones deja un 1 donde empiezan {@code dias} días libres
+     * seguidos, y el AND con los candidatos aplica el patrón de días de inicio.
+     *
+     * @return posición (relativa a {@code primero}) del primer inicio válido, o -1.
+     */
+    private int primerInicioLibre(Ocupacion ocupacion, int primero, int cantidad, int dias, BitSet candidatos) {
+        if (cantidad < dias) {
+            return -1;
+        }
+        BitSet libres = new BitSet(cantidad);
+        libres.set(0, cantidad);
+        if (ocupacion != null) {
+            libres.andNot(ocupacion.dias.get(primero, primero + cantidad));
+        }
+
+        BitSet ventanas = (BitSet) candidatos.clone();
+        ventanas.and(libres);
+        for (int desplazamiento = 1; desplazamiento < dias; desplazamiento++) {
+            // get(desplazamiento, cantidad) corre los bits hacia la posición 0
+            ventanas.and(libres.get(desplazamiento, cantidad));
+        }
+        return ventanas.nextSetBit(0);
+    }
+
+    private void eliminarSinLock(Long reservaId) {
+        Rango rango = rangosPorReserva.remove(reservaId);
+        if (rango == null) {
+            return;
+        }
+        Ocupacion ocupacion = ocupacionPorEspacio.get(rango.espacioId());
+        for (int dia = rango.desde(); dia <= rango.hasta(); dia++) {
+            Integer extra = ocupacion.reservasExtra.get(dia);
+            if (extra == null) {
+                ocupacion.dias.clear(dia);
+            } else if (extra > 1) {
+                ocupacion.reservasExtra.put(dia, extra - 1);
+            } else {
+                ocupacion.reservasExtra.remove(dia);
+            }
+        }
+        if (ocupacion.dias.isEmpty()) {
+            ocupacionPorEspacio.remove(rango.espacioId());
+        }
+    }
+
+    private int indice(LocalDate fecha) {
+        long dias = fecha.toEpochDay() - origen.toEpochDay();
+        return (int) Math.max(Math.min(dias, Integer.MAX_VALUE), Integer.MIN_VALUE);
+    }
+}
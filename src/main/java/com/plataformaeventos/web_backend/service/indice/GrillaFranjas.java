@@ -0,0 +1,148 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Grilla de franjas horarias (por ejemplo, de 30 minutos) de un espacio que se alquila por hora.
+ *
+ * Se arma para una ventana de días a partir de las reservas activas que la tocan:
+ * cada reserva, extendida por el tiempo de preparación antes y después, marca como
+ * ocupadas las franjas que pisa. El costo es O(reservas + franjas), sin consultas por franja.
+ *
+ * Reglas aplicadas:
+ *  - Horario: entre horaCheckIn y horaCheckOut (si no están, el día completo).
+ *  - Días bloqueados: fechas ISO (2025-12-25) o días de la semana (LUNES, sábado, SUNDAY...).
+ *  - Aviso mínimo: no se ofrecen franjas que empiecen antes de ese momento.
+ */
+public class GrillaFranjas {
+
+    private static final Map<String, DayOfWeek> DIAS_DE_SEMANA = Map.of(
+            "lunes", DayOfWeek.MONDAY,
+            "martes", DayOfWeek.TUESDAY,
+            "miercoles", DayOfWeek.WEDNESDAY,
+            "jueves", DayOfWeek.THURSDAY,
+            "viernes", DayOfWeek.FRIDAY,
+            "sabado", DayOfWeek.SATURDAY,
+            "domingo", DayOfWeek.SUNDAY
+    );
+
+    public record Intervalo(LocalDateTime inicio, LocalDateTime fin) {
+    }
+
+    public record Franja(LocalDateTime inicio, LocalDateTime fin, boolean disponible) {
+    }
+
+    public record Dia(LocalDate fecha, boolean bloqueado, List<Franja> franjas) {
+    }
+
+    private final int minutosPorFranja;
+    private final LocalTime apertura;
+    private final LocalTime cierre;
+    private final Duration preparacion;
+    private final LocalDateTime primerInicioPermitido;
+    private final Set<LocalDate> fechasBloqueadas = new HashSet<>();
+    private final Set<DayOfWeek> diasSemanaBloqueados = EnumSet.noneOf(DayOfWeek.class);
+
+    /**
+     * @param minutosPorFranja      duración de cada franja.
+     * @param horaCheckIn           inicio del horario diario (null: 00:00).
+     * @param horaCheckOut          fin del horario diario (null o no posterior al inicio: 24:00).
+     * @param minutosPreparacion    separación mínima entre reservas (null: ninguna).
+     * @param diasBloqueados        días bloqueados tal como los guarda el espacio.
+     * @param primerInicioPermitido franjas anteriores a este momento no se ofrecen.
+     */
+    public GrillaFranjas(int minutosPorFranja, LocalTime horaCheckIn, LocalTime horaCheckOut, Integer minutosPreparacion,
+                         Collection<String> diasBloqueados, LocalDateTime primerInicioPermitido) {
+        this.minutosPorFranja = minutosPorFranja;
+        this.apertura = horaCheckIn != null ? horaCheckIn : LocalTime.MIDNIGHT;
+        this.cierre = horaCheckOut != null && horaCheckOut.isAfter(apertura) ? horaCheckOut : null;
+        this.preparacion = Duration.ofMinutes(minutosPreparacion != null ? Math.max(minutosPreparacion, 0) : 0);
+        this.primerInicioPermitido = primerInicioPermitido;
+
+        if (diasBloqueados != null) {
+            for (String dia : diasBloqueados) {
+                interpretarDiaBloqueado(dia);
+            }
+        }
+    }
+
+    /**
+     * Franjas de cada día entre {@code desde} y {@code hasta} (ambos incluidos).
+     *
+     * @param reservas reservas activas que se solapan con la ventana, en cualquier orden.
+     */
+    public List<Dia> calcular(LocalDate desde, LocalDate hasta, Collection<Intervalo> reservas) {
+        List<Dia> dias = new ArrayList<>();
+
+        for (LocalDate fecha = desde; !fecha.isAfter(hasta); fecha = fecha.plusDays(1)) {
+            if (estaBloqueado(fecha)) {
+                dias.add(new Dia(fecha, true, List.of()));
+                continue;
+            }
+
+            LocalDateTime abre = fecha.atTime(apertura);
+            LocalDateTime cierra = cierre != null ? fecha.atTime(cierre) : fecha.plusDays(1).atStartOfDay();
+            int cantidad = (int) (Duration.between(abre, cierra).toMinutes() / minutosPorFranja);
+
+            BitSet ocupadas = new BitSet(cantidad);
+            for (Intervalo reserva : reservas) {
+                marcarOcupadas(ocupadas, abre, cantidad, reserva.inicio().minus(preparacion), reserva.fin().plus(preparacion));
+            }
+
+            List<Franja> franjas = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                LocalDateTime inicio = abre.plusMinutes((long) i * minutosPorFranja);
+                boolean disponible = !ocupadas.get(i) && !inicio.isBefore(primerInicioPermitido);
+                franjas.add(new Franja(inicio, inicio.plusMinutes(minutosPorFranja), disponible));
+            }
+            dias.add(new Dia(fecha, false, franjas));
+        }
+        return dias;
+    }
+
+    /**
+     * Marca las franjas del día que se solapan con [desde, hasta).
+     */
+    private void marcarOcupadas(BitSet ocupadas, LocalDateTime abre, int cantidad, LocalDateTime desde, LocalDateTime hasta) {
+        long minutoDesde = Duration.between(abre, desde).toMinutes();
+        long minutoHasta = Duration.between(abre, hasta).toMinutes();
+        if (minutoHasta <= 0 || minutoDesde >= (long) cantidad * minutosPorFranja) {
+            return;
+        }
+        int primera = (int) Math.max(Math.floorDiv(minutoDesde, minutosPorFranja), 0);
+        int ultima = (int) Math.min(Math.floorDiv(minutoHasta - 1, minutosPorFranja), cantidad - 1);
+        ocupadas.set(primera, ultima + 1);
+    }
+
+    private boolean estaBloqueado(LocalDate fecha) {
+        return fechasBloqueadas.contains(fecha) || diasSemanaBloqueados.contains(fecha.getDayOfWeek());
+    }
+
+    private void interpretarDiaBloqueado(String dia) {
+        if (dia == null || dia.isBlank()) {
+            return;
+        }
+        String normalizado = AnalizadorTexto.normalizar(dia).trim();
+        if (DIAS_DE_SEMANA.containsKey(normalizado)) {
+            diasSemanaBloqueados.add(DIAS_DE_SEMANA.get(normalizado));
+            return;
+        }
+        try {
+            diasSemanaBloqueados.add(DayOfWeek.valueOf(normalizado.toUpperCase()));
+            return;
+        } catch (IllegalArgumentException e) {
+            // No es un día de la semana en inglés: probamos como fecha
+        }
+        try {
+            fechasBloqueadas.add(LocalDate.parse(dia.trim().length() > 10 ? dia.trim().substring(0, 10) : dia.trim()));
+        } catch (DateTimeParseException e) {
+            // Formato desconocido: se ignora en lugar de bloquear de más
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import com.plataformaeventos.web_backend.event.EspacioEliminadoEvent;
+import com.plataformaeventos.web_backend.event.EspacioModificadoEvent;
+import com.plataformaeventos.web_backend.model.Espacio;
+import com.plataformaeventos.web_backend.model.EstadoEspacio;
+import com.plataformaeventos.web_backend.repository.EspacioRepository;
+import com.plataformaeventos.web_backend.repository.EspacioTextoProyeccion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índices de búsqueda de texto sobre los espacios.
+ *
+ * Reemplaza el LIKE '%x%' del listado (que obliga a recorrer toda la tabla) por:
+ *  - Un índice invertido con análisis en español y ranking (nombre, tipo y descripción).
+ *  - Un índice de trigramas para búsquedas tolerantes a errores (nombre, tipo y dirección).
+ *
+ * Sólo contiene espacios publicados: los candidatos que devuelve son exactamente
+ * los que puede mostrar el catálogo, y los filtros restantes se aplican en la base.
+ *
+ * Se construye al iniciar la aplicación, se actualiza después de cada commit
+ * que crea o modifica un espacio y se reconstruye periódicamente para
+ * converger con los cambios hechos por otras réplicas.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndiceBusquedaEspacios {
+
+    private static final double PESO_NOMBRE = 3.0;
+    private static final double PESO_TIPO = 2.0;
+    private static final double PESO_DESCRIPCION = 1.0;
+
+    private final EspacioRepository espacioRepository;
+    private final IndiceInvertido indice = new IndiceInvertido();
+    private final IndiceTrigramas indiceTrigramas = new IndiceTrigramas();
+
+    /**
+     * Eventos de espacios recibidos durante una reconstrucción (guardados sólo mientras dura).
+     * También es el monitor que ordena los cambios respecto del reemplazo de los índices.
+     */
+    private final List<Object> cambiosDuranteReconstruccion = new ArrayList<>();
+    private boolean reconstruyendo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        reconstruir();
+        System.out.println("🔎 Índice de búsqueda cargado: " + indice.cantidadDocumentos() + " espacios.");
+    }
+
+    @Scheduled(fixedDelayString = "${indice.busqueda.refresco-ms:900000}",
+            initialDelayString = "${indice.busqueda.refresco-ms:900000}")
+    public synchronized void reconstruir() {
+        synchronized (cambiosDuranteReconstruccion) {
+            reconstruyendo = true;
+            cambiosDuranteReconstruccion.clear();
+        }
+
+        IndiceInvertido nuevo = new IndiceInvertido();
+        IndiceTrigramas nuevoTrigramas = new IndiceTrigramas();
+        for (EspacioTextoProyeccion espacio : espacioRepository.findTextosParaIndice()) {
+            nuevo.indexar(espacio.getId(), campos(espacio.getNombre(), espacio.getTipo(), espacio.getDescripcion()));
+            nuevoTrigramas.indexar(espacio.getId(), textosTolerantes(espacio.getNombre(), espacio.getTipo(), espacio.getDireccion()));
+        }
+
+        // Los espacios modificados mientras se leía la instantánea pueden no estar en ella:
+        // se vuelven a aplicar, en orden, después del reemplazo
+        synchronized (cambiosDuranteReconstruccion) {
+            indice.reemplazarPor(nuevo);
+            indiceTrigramas.reemplazarPor(nuevoTrigramas);
+            cambiosDuranteReconstruccion.forEach(this::aplicar);
+            cambiosDuranteReconstruccion.clear();
+            reconstruyendo = false;
+        }
+    }
+
+    /**
+     * Devuelve los ids de todos los espacios publicados que coinciden con la búsqueda,
+     * ordenados de más a menos relevante. No se acota: la cota de resultados se aplica
+     * después de los demás filtros del listado.
+     */
+    public List<Long> buscar(String busqueda) {
+        return indice.buscar(busqueda, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Búsqueda tolerante a errores de tipeo, ordenada por similitud.
+     */
+    public List<Long> buscarTolerante(String busqueda) {
+        return indiceTrigramas.buscar(busqueda, Integer.MAX_VALUE);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarEspacio(EspacioModificadoEvent evento) {
+        registrar(evento);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alEliminarEspacio(EspacioEliminadoEvent evento) {
+        registrar(evento);
+    }
+
+    private void registrar(Object evento) {
+        synchronized (cambiosDuranteReconstruccion) {
+            aplicar(evento);
+            if (reconstruyendo) {
+                cambiosDuranteReconstruccion.add(evento);
+            }
+        }
+    }
+
+    private void aplicar(Object evento) {
+        if (evento instanceof EspacioEliminadoEvent eliminado) {
+            indice.eliminar(eliminado.espacioId());
+            indiceTrigramas.eliminar(eliminado.espacioId());
+            return;
+        }
+        Espacio espacio = ((EspacioModificadoEvent) evento).espacio();
+        // Un espacio pausado o eliminado sale del índice; vuelve a entrar al publicarse
+        if (espacio.getEstado() != EstadoEspacio.PUBLICADO) {
+            indice.eliminar(espacio.getId());
+            indiceTrigramas.eliminar(espacio.getId());
+            return;
+        }
+        indice.indexar(espacio.getId(), campos(espacio.getNombre(), espacio.getTipo(), espacio.getDescripcion()));
+        indiceTrigramas.indexar(espacio.getId(), textosTolerantes(espacio.getNombre(), espacio.getTipo(), espacio.getDireccion()));
+    }
+
+    private List<IndiceInvertido.Campo> campos(String nombre, String tipo, String descripcion) {
+        return List.of(
+                new IndiceInvertido.Campo(nombre, PESO_NOMBRE),
+                new IndiceInvertido.Campo(tipo, PESO_TIPO),
+                new IndiceInvertido.Campo(descripcion, PESO_DESCRIPCION)
+        );
+    }
+
+    private List<String> textosTolerantes(String nombre, String tipo, String direccion) {
+        // Arrays.asList admite nulos (List.of no)
+        return Arrays.asList(nombre, tipo, direccion);
+    }
+}
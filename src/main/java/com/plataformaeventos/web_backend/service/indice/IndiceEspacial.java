@@ -0,0 +1,172 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice espacial en memoria basado en una grilla regular de latitud/longitud.
+ *
+ * Cada punto se guarda en la celda que lo contiene. Una búsqueda por radio
+ * sólo visita las celdas que intersectan el rectángulo envolvente del círculo
+ * y calcula la distancia exacta (Haversine) únicamente sobre esos candidatos,
+ * por lo que el costo depende de la densidad local y no del total de puntos.
+ */
+public class IndiceEspacial {
+
+    public static final double RADIO_TIERRA_KM = 6371.0;
+    private static final double KM_POR_GRADO_LATITUD = 111.32;
+
+    /**
+     * Punto indexado.
+     */
+    public record Punto(Long id, double latitud, double longitud) {
+    }
+
+    /**
+     * Resultado de una búsqueda por cercanía.
+     */
+    public record Cercano(Long id, double distanciaKm) {
+    }
+
+    private final double tamanoCelda;
+    private final Map<Long, List<Punto>> celdas = new HashMap<>();
+    private final Map<Long, Punto> puntos = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param tamanoCelda lado de cada celda en grados (0.1° ≈ 11 km de latitud).
+     */
+    public IndiceEspacial(double tamanoCelda) {
+        this.tamanoCelda = tamanoCelda;
+    }
+
+    public void guardar(Punto punto) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(punto.id());
+            puntos.put(punto.id(), punto);
+            celdas.computeIfAbsent(clave(punto.latitud(), punto.longitud()), c -> new ArrayList<>()).add(punto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido del índice por el de otro índice ya construido.
+     */
+    public void reemplazarPor(IndiceEspacial otro) {
+        lock.writeLock().lock();
+        try {
+            celdas.clear();
+            puntos.clear();
+            celdas.putAll(otro.celdas);
+            puntos.putAll(otro.puntos);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int cantidadPuntos() {
+        lock.readLock().lock();
+        try {
+            return puntos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puntos dentro del radio indicado, ordenados por distancia ascendente.
+     *
+     * @param latitud   latitud del centro.
+     * @param longitud  longitud del centro.
+     * @param radioKm   radio de búsqueda en kilómetros.
+     * @param limite    cantidad máxima de resultados.
+     */
+    public List<Cercano> buscarCercanos(double latitud, double longitud, double radioKm, int limite) {
+        double deltaLatitud = radioKm / KM_POR_GRADO_LATITUD;
+        // Cerca de los polos el coseno tiende a cero: acotamos para no recorrer toda la grilla
+        double cosenoLatitud = Math.max(Math.cos(Math.toRadians(latitud)), 0.01);
+        double deltaLongitud = Math.min(radioKm / (KM_POR_GRADO_LATITUD * cosenoLatitud), 180.0);
+
+        long filaDesde = indiceCelda(latitud - deltaLatitud);
+        long filaHasta = indiceCelda(latitud + deltaLatitud);
+        long columnaDesde = indiceCelda(longitud - deltaLongitud);
+        long columnaHasta = indiceCelda(longitud + deltaLongitud);
+
+        List<Cercano> candidatos = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (long fila = filaDesde; fila <= filaHasta; fila++) {
+                for (long columna = columnaDesde; columna <= columnaHasta; columna++) {
+                    List<Punto> enCelda = celdas.get(clave(fila, columna));
+                    if (enCelda == null) {
+                        continue;
+                    }
+                    for (Punto punto : enCelda) {
+                        double distancia = distanciaKm(latitud, longitud, punto.latitud(), punto.longitud());
+                        if (distancia <= radioKm) {
+                            candidatos.add(new Cercano(punto.id(), distancia));
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        candidatos.sort(Comparator.comparingDouble(Cercano::distanciaKm));
+        return candidatos.size() > limite ? new ArrayList<>(candidatos.subList(0, limite)) : candidatos;
+    }
+
+    /**
+     * Distancia sobre la esfera terrestre con la fórmula de Haversine.
+     */
+    public static double distanciaKm(double latitud1, double longitud1, double latitud2, double longitud2) {
+        double dLatitud = Math.toRadians(latitud2 - latitud1);
+        double dLongitud = Math.toRadians(longitud2 - longitud1);
+        double a = Math.sin(dLatitud / 2) * Math.sin(dLatitud / 2)
+                + Math.cos(Math.toRadians(latitud1)) * Math.cos(Math.toRadians(latitud2))
+                * Math.sin(dLongitud / 2) * Math.sin(dLongitud / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private void eliminarSinLock(Long id) {
+        Punto anterior = puntos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        long clave = clave(anterior.latitud(), anterior.longitud());
+        List<Punto> enCelda = celdas.get(clave);
+        if (enCelda != null) {
+            enCelda.removeIf(p -> p.id().equals(id));
+            if (enCelda.isEmpty()) {
+                celdas.remove(clave);
+            }
+        }
+    }
+
+    private long indiceCelda(double grados) {
+        return (long) Math.floor(grados / tamanoCelda);
+    }
+
+    private long clave(double latitud, double longitud) {
+        return clave(indiceCelda(latitud), indiceCelda(longitud));
+    }
+
+    private static long clave(long fila, long columna) {
+        // Las filas y columnas caben holgadamente en 32 bits para cualquier tamaño de celda razonable
+        return (fila << 32) ^ (columna & 0xFFFFFFFFL);
+    }
+}
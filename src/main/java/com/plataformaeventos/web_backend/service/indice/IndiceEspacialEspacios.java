@@ -0,0 +1,162 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import com.plataformaeventos.web_backend.event.EspacioEliminadoEvent;
+import com.plataformaeventos.web_backend.event.EspacioModificadoEvent;
+import com.plataformaeventos.web_backend.model.Espacio;
+import com.plataformaeventos.web_backend.model.EstadoEspacio;
+import com.plataformaeventos.web_backend.model.VisibilidadDireccion;
+import com.plataformaeventos.web_backend.repository.EspacioRepository;
+import com.plataformaeventos.web_backend.repository.EspacioUbicacionProyeccion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Índices geográficos de los espacios publicados:
+ *  - Una grilla para búsquedas "cerca de mí": sólo se evalúa la distancia exacta
+ *    de los espacios en las celdas cercanas, en lugar de recorrer toda la tabla.
+ *  - Agregados por tile para el mapa (clusters con cantidad, centroide y precio mínimo),
+ *    mantenidos de forma incremental al publicar, pausar o editar un espacio.
+ *
+ * Los espacios con dirección aproximada entran ya desplazados por {@link UbicacionAproximada}:
+ * ningún resultado (pin, centroide de cluster o distancia) se calcula con su ubicación exacta.
+ *
+ * Mismo ciclo de vida que {@link IndiceBusquedaEspacios}: carga al iniciar,
+ * actualización después de cada commit y reconstrucción periódica.
+ */
+@Component
+@RequiredArgsConstructor
+public class IndiceEspacialEspacios {
+
+    /**
+     * Lado de cada celda de la grilla, en grados (≈ 11 km).
+     */
+    private static final double TAMANO_CELDA = 0.1;
+
+    private final EspacioRepository espacioRepository;
+    private final UbicacionAproximada ubicacionAproximada;
+    private final IndiceEspacial indice = new IndiceEspacial(TAMANO_CELDA);
+    private final IndiceMapa indiceMapa = new IndiceMapa();
+
+    /**
+     * Eventos de espacios recibidos durante una reconstrucción (guardados sólo mientras dura).
+     * También es el monitor que ordena los cambios respecto del reemplazo de los índices.
+     */
+    private final List<Object> cambiosDuranteReconstruccion = new ArrayList<>();
+    private boolean reconstruyendo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        reconstruir();
+        System.out.println("📍 Índice espacial cargado: " + indice.cantidadPuntos() + " espacios.");
+    }
+
+    @Scheduled(fixedDelayString = "${indice.busqueda.refresco-ms:900000}",
+            initialDelayString = "${indice.busqueda.refresco-ms:900000}")
+    public synchronized void reconstruir() {
+        synchronized (cambiosDuranteReconstruccion) {
+            reconstruyendo = true;
+            cambiosDuranteReconstruccion.clear();
+        }
+
+        IndiceEspacial nuevo = new IndiceEspacial(TAMANO_CELDA);
+        IndiceMapa nuevoMapa = new IndiceMapa();
+        for (EspacioUbicacionProyeccion espacio : espacioRepository.findUbicacionesPublicadas()) {
+            UbicacionAproximada.Coordenadas ubicacion = ubicacionPublica(espacio.getId(), espacio.getLatitud(),
+                    espacio.getLongitud(), espacio.getMostrarDireccionExacta());
+            nuevo.guardar(new IndiceEspacial.Punto(espacio.getId(), ubicacion.latitud(), ubicacion.longitud()));
+            nuevoMapa.guardar(new IndiceMapa.Punto(espacio.getId(), ubicacion.latitud(), ubicacion.longitud(),
+                    precio(espacio.getPrecio())));
+        }
+
+        // Los espacios modificados mientras se leía la instantánea pueden no estar en ella:
+        // se vuelven a aplicar, en orden, después del reemplazo
+        synchronized (cambiosDuranteReconstruccion) {
+            indice.reemplazarPor(nuevo);
+            indiceMapa.reemplazarPor(nuevoMapa);
+            cambiosDuranteReconstruccion.forEach(this::aplicar);
+            cambiosDuranteReconstruccion.clear();
+            reconstruyendo = false;
+        }
+    }
+
+    /**
+     * Espacios publicados dentro del radio, ordenados por distancia.
+     */
+    public List<IndiceEspacial.Cercano> buscarCercanos(double latitud, double longitud, double radioKm, int limite) {
+        return indice.buscarCercanos(latitud, longitud, radioKm, limite);
+    }
+
+    /**
+     * Clusters pre-agregados de los tiles visibles en el nivel indicado.
+     */
+    public List<IndiceMapa.Cluster> clusters(IndiceMapa.Rectangulo rectangulo, int nivel) {
+        return indiceMapa.clusters(rectangulo, nivel);
+    }
+
+    /**
+     * Espacios individuales dentro del rectángulo visible.
+     */
+    public List<IndiceMapa.Punto> pines(IndiceMapa.Rectangulo rectangulo, int limite) {
+        return indiceMapa.pines(rectangulo, limite);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarEspacio(EspacioModificadoEvent evento) {
+        registrar(evento);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alEliminarEspacio(EspacioEliminadoEvent evento) {
+        registrar(evento);
+    }
+
+    private void registrar(Object evento) {
+        synchronized (cambiosDuranteReconstruccion) {
+            aplicar(evento);
+            if (reconstruyendo) {
+                cambiosDuranteReconstruccion.add(evento);
+            }
+        }
+    }
+
+    private void aplicar(Object evento) {
+        if (evento instanceof EspacioEliminadoEvent eliminado) {
+            indice.eliminar(eliminado.espacioId());
+            indiceMapa.eliminar(eliminado.espacioId());
+            return;
+        }
+        Espacio espacio = ((EspacioModificadoEvent) evento).espacio();
+        // Sólo los espacios publicados y ubicados participan de la búsqueda por cercanía
+        if (espacio.getEstado() != EstadoEspacio.PUBLICADO || espacio.getLatitud() == null || espacio.getLongitud() == null) {
+            indice.eliminar(espacio.getId());
+            indiceMapa.eliminar(espacio.getId());
+            return;
+        }
+        UbicacionAproximada.Coordenadas ubicacion = ubicacionPublica(espacio.getId(), espacio.getLatitud(),
+                espacio.getLongitud(), espacio.getMostrarDireccionExacta());
+        indice.guardar(new IndiceEspacial.Punto(espacio.getId(), ubicacion.latitud(), ubicacion.longitud()));
+        indiceMapa.guardar(new IndiceMapa.Punto(espacio.getId(), ubicacion.latitud(), ubicacion.longitud(),
+                precio(espacio.getPrecio())));
+    }
+
+    /**
+     * Ubicación con la que el espacio entra a los índices: la exacta, o la desplazada si es aproximada.
+     */
+    private UbicacionAproximada.Coordenadas ubicacionPublica(Long id, double latitud, double longitud, VisibilidadDireccion visibilidad) {
+        return visibilidad == VisibilidadDireccion.APROXIMADA
+                ? ubicacionAproximada.difuminar(id, latitud, longitud)
+                : new UbicacionAproximada.Coordenadas(latitud, longitud);
+    }
+
+    private static Double precio(BigDecimal precio) {
+        return precio != null ? precio.doubleValue() : null;
+    }
+}
@@ -0,0 +1,162 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de intervalos de reservas activas por espacio, para resolver solapamientos
+ * en lecturas (cotizaciones por lote) sin ir a la base de datos.
+ *
+ * No es autoritativo: cada réplica tiene el suyo y puede ir atrasado respecto de las
+ * reservas confirmadas en otra, así que la validación al reservar no lo usa (la hace la
+ * restricción reservas_sin_solapamiento de la base de datos).
+ *
+ * Por cada espacio se guarda un arreglo de intervalos ordenado por inicio junto
+ * con el máximo fin acumulado hasta cada posición. Con eso, saber si [inicio, fin)
+ * se solapa con alguna reserva es una búsqueda binaria: se toma el último intervalo
+ * que empieza antes de {@code fin} y se mira si algún intervalo hasta ahí termina
+ * después de {@code inicio}. Es correcto aunque haya intervalos solapados entre sí.
+ *
+ * Las altas y bajas reordenan sólo el arreglo del espacio afectado.
+ */
+public class IndiceIntervalos {
+
+    public record Intervalo(Long reservaId, Long espacioId, LocalDateTime inicio, LocalDateTime fin) {
+    }
+
+    private record Ordenados(LocalDateTime[] inicios, LocalDateTime[] finesMaximos) {
+    }
+
+    private final Map<Long, Intervalo> intervalosPorReserva = new HashMap<>();
+    private final Map<Long, Map<Long, Intervalo>> intervalosPorEspacio = new HashMap<>();
+    private final Map<Long, Ordenados> ordenadosPorEspacio = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Construye un índice completo ordenando cada espacio una sola vez.
+     */
+    public static IndiceIntervalos construir(Collection<Intervalo> intervalos) {
+        IndiceIntervalos indice = new IndiceIntervalos();
+        for (Intervalo intervalo : intervalos) {
+            indice.intervalosPorReserva.put(intervalo.reservaId(), intervalo);
+            indice.intervalosPorEspacio.computeIfAbsent(intervalo.espacioId(), id -> new HashMap<>())
+                    .put(intervalo.reservaId(), intervalo);
+        }
+        indice.intervalosPorEspacio.keySet().forEach(indice::reordenar);
+        return indice;
+    }
+
+    public void guardar(Intervalo intervalo) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(intervalo.reservaId());
+            intervalosPorReserva.put(intervalo.reservaId(), intervalo);
+            intervalosPorEspacio.computeIfAbsent(intervalo.espacioId(), id -> new HashMap<>())
+                    .put(intervalo.reservaId(), intervalo);
+            reordenar(intervalo.espacioId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long reservaId) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(reservaId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido del índice por el de otro índice ya construido.
+     */
+    public void reemplazarPor(IndiceIntervalos otro) {
+        lock.writeLock().lock();
+        try {
+            intervalosPorReserva.clear();
+            intervalosPorReserva.putAll(otro.intervalosPorReserva);
+            intervalosPorEspacio.clear();
+            intervalosPorEspacio.putAll(otro.intervalosPorEspacio);
+            ordenadosPorEspacio.clear();
+            ordenadosPorEspacio.putAll(otro.ordenadosPorEspacio);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si alguna reserva del espacio se solapa con [inicio, fin).
+     * Los extremos que sólo se tocan no cuentan como solapamiento.
+     */
+    public boolean haySolapamiento(Long espacioId, LocalDateTime inicio, LocalDateTime fin) {
+        lock.readLock().lock();
+        try {
+            Ordenados ordenados = ordenadosPorEspacio.get(espacioId);
+            if (ordenados == null) {
+                return false;
+            }
+            int ultimo = ultimoQueEmpiezaAntesDe(ordenados.inicios(), fin);
+            return ultimo >= 0 && ordenados.finesMaximos()[ultimo].isAfter(inicio);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void eliminarSinLock(Long reservaId) {
+        Intervalo anterior = intervalosPorReserva.remove(reservaId);
+        if (anterior == null) {
+            return;
+        }
+        Map<Long, Intervalo> delEspacio = intervalosPorEspacio.get(anterior.espacioId());
+        delEspacio.remove(reservaId);
+        if (delEspacio.isEmpty()) {
+            intervalosPorEspacio.remove(anterior.espacioId());
+        }
+        reordenar(anterior.espacioId());
+    }
+
+    private void reordenar(Long espacioId) {
+        Map<Long, Intervalo> delEspacio = intervalosPorEspacio.get(espacioId);
+        if (delEspacio == null) {
+            ordenadosPorEspacio.remove(espacioId);
+            return;
+        }
+
+        List<Intervalo> lista = new ArrayList<>(delEspacio.values());
+        lista.sort(Comparator.comparing(Intervalo::inicio));
+
+        LocalDateTime[] inicios = new LocalDateTime[lista.size()];
+        LocalDateTime[] finesMaximos = new LocalDateTime[lista.size()];
+        LocalDateTime maximo = null;
+        for (int i = 0; i < lista.size(); i++) {
+            inicios[i] = lista.get(i).inicio();
+            if (maximo == null || lista.get(i).fin().isAfter(maximo)) {
+                maximo = lista.get(i).fin();
+            }
+            finesMaximos[i] = maximo;
+        }
+        ordenadosPorEspacio.put(espacioId, new Ordenados(inicios, finesMaximos));
+    }
+
+    /**
+     * Posición del último inicio estrictamente anterior a {@code limite}, o -1.
+     */
+    private static int ultimoQueEmpiezaAntesDe(LocalDateTime[] inicios, LocalDateTime limite) {
+        int desde = 0;
+        int hasta = inicios.length - 1;
+        int resultado = -1;
+        while (desde <= hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (inicios[medio].isBefore(limite)) {
+                resultado = medio;
+                desde = medio + 1;
+            } else {
+                hasta = medio - 1;
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,178 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria: término → (documento → peso).
+ *
+ * Cada documento se indexa a partir de campos con distinto peso (por ejemplo,
+ * el nombre pesa más que la descripción). Las búsquedas combinan la cobertura
+ * de la consulta (cuántos términos coinciden) con un puntaje tf-idf, y aceptan
+ * coincidencias por prefijo para que "quin" encuentre "quincho".
+ *
+ * Es seguro para uso concurrente: las búsquedas comparten un lock de lectura
+ * y las modificaciones toman el de escritura.
+ */
+public class IndiceInvertido {
+
+    private static final double PESO_PREFIJO = 0.7;
+    private static final int MAX_EXPANSIONES_PREFIJO = 50;
+    private static final int LARGO_MINIMO_PREFIJO = 3;
+
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> terminosPorDocumento = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Campo de texto de un documento junto con su peso relativo.
+     */
+    public record Campo(String texto, double peso) {
+    }
+
+    /**
+     * Indexa (o reindexa) un documento.
+     *
+     * @param id     identificador del documento.
+     * @param campos campos de texto del documento con su peso.
+     */
+    public void indexar(Long id, List<Campo> campos) {
+        Map<String, Double> pesos = calcularPesos(campos);
+
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+            pesos.forEach((termino, peso) -> postings.computeIfAbsent(termino, t -> new HashMap<>()).put(id, peso));
+            terminosPorDocumento.put(id, pesos.keySet());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido del índice por el de otro índice ya construido.
+     * Permite reconstruir fuera del lock y publicar el resultado de una sola vez.
+     */
+    public void reemplazarPor(IndiceInvertido otro) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            terminosPorDocumento.clear();
+            postings.putAll(otro.postings);
+            terminosPorDocumento.putAll(otro.terminosPorDocumento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int cantidadDocumentos() {
+        lock.readLock().lock();
+        try {
+            return terminosPorDocumento.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los documentos que coinciden con la consulta, ordenados por relevancia.
+     *
+     * @param consulta texto libre ingresado por el usuario.
+     * @param limite   cantidad máxima de resultados.
+     * @return ids ordenados de más a menos relevante.
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> terminosConsulta = AnalizadorTexto.terminos(consulta).stream().distinct().toList();
+        if (terminosConsulta.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> coincidencias = new HashMap<>();
+        Map<Long, Double> puntajes = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int totalDocumentos = Math.max(1, terminosPorDocumento.size());
+            for (String terminoConsulta : terminosConsulta) {
+                // Mejor puntaje de este término de consulta en cada documento
+                Map<Long, Double> mejorPorDocumento = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Double>> entrada : expandir(terminoConsulta)) {
+                    double factor = entrada.getKey().equals(terminoConsulta) ? 1.0 : PESO_PREFIJO;
+                    double idf = Math.log(1.0 + (double) totalDocumentos / entrada.getValue().size());
+                    entrada.getValue().forEach((id, peso) ->
+                            mejorPorDocumento.merge(id, peso * idf * factor, Math::max));
+                }
+                mejorPorDocumento.forEach((id, puntaje) -> {
+                    coincidencias.merge(id, 1, Integer::sum);
+                    puntajes.merge(id, puntaje, Double::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return puntajes.keySet().stream()
+                .sorted(Comparator.<Long>comparingInt(coincidencias::get).reversed()
+                        .thenComparing(Comparator.<Long>comparingDouble(puntajes::get).reversed())
+                        .thenComparing(Comparator.<Long>reverseOrder()))
+                .limit(limite)
+                .toList();
+    }
+
+    /**
+     * Postings del término exacto y, si el término es suficientemente largo,
+     * de los términos que empiezan con él (acotado para no recorrer el diccionario).
+     */
+    private List<Map.Entry<String, Map<Long, Double>>> expandir(String termino) {
+        if (termino.length() < LARGO_MINIMO_PREFIJO) {
+            Map<Long, Double> exacto = postings.get(termino);
+            return exacto == null ? List.of() : List.of(Map.entry(termino, exacto));
+        }
+        List<Map.Entry<String, Map<Long, Double>>> expansiones = new ArrayList<>();
+        for (Map.Entry<String, Map<Long, Double>> entrada : postings.tailMap(termino, true).entrySet()) {
+            if (!entrada.getKey().startsWith(termino) || expansiones.size() >= MAX_EXPANSIONES_PREFIJO) {
+                break;
+            }
+            expansiones.add(entrada);
+        }
+        return expansiones;
+    }
+
+    private Map<String, Double> calcularPesos(List<Campo> campos) {
+        Map<String, Double> pesos = new HashMap<>();
+        for (Campo campo : campos) {
+            for (String termino : AnalizadorTexto.terminos(campo.texto())) {
+                pesos.merge(termino, campo.peso(), Double::sum);
+            }
+        }
+        // Saturamos la frecuencia para que repetir una palabra no domine el ranking
+        pesos.replaceAll((termino, peso) -> peso / (peso + 1.0));
+        return pesos;
+    }
+
+    private void eliminarSinLock(Long id) {
+        Set<String> terminos = terminosPorDocumento.remove(id);
+        if (terminos == null) {
+            return;
+        }
+        for (String termino : terminos) {
+            Map<Long, Double> documentos = postings.get(termino);
+            if (documentos != null) {
+                documentos.remove(id);
+                if (documentos.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Agregados de mapa por tile (proyección Web Mercator, esquema z/x/y).
+ *
+ * Para cada nivel de zoom entre 0 y {@link #NIVEL_MAXIMO} se mantiene, por tile
+ * no vacío, la cantidad de puntos, la suma de coordenadas (para el centroide)
+ * y un multiconjunto de precios (para el mínimo). Los agregados se actualizan
+ * de forma incremental al guardar o eliminar un punto, así que una consulta
+ * del mapa cuesta O(tiles visibles) y no O(puntos).
+ *
+ * En el nivel máximo también se guardan los puntos de cada tile, para
+ * devolver pines individuales cuando el zoom es alto.
+ */
+public class IndiceMapa {
+
+    public static final int NIVEL_MAXIMO = 16;
+
+    /**
+     * Límite de latitud representable en Web Mercator.
+     */
+    private static final double LATITUD_MAXIMA = 85.05112878;
+
+    public record Punto(Long id, double latitud, double longitud, Double precio) {
+    }
+
+    public record Cluster(double latitud, double longitud, int cantidad, Double precioMinimo) {
+    }
+
+    public record Rectangulo(double sur, double oeste, double norte, double este) {
+    }
+
+    private static final class Agregado {
+        private int cantidad;
+        private double sumaLatitud;
+        private double sumaLongitud;
+        private final TreeMap<Double, Integer> precios = new TreeMap<>();
+    }
+
+    private final List<Map<Long, Agregado>> agregadosPorNivel = new ArrayList<>();
+    private final Map<Long, List<Punto>> puntosPorTile = new HashMap<>();
+    private final Map<Long, Punto> puntos = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public IndiceMapa() {
+        for (int nivel = 0; nivel <= NIVEL_MAXIMO; nivel++) {
+            agregadosPorNivel.add(new HashMap<>());
+        }
+    }
+
+    public void guardar(Punto punto) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(punto.id());
+            puntos.put(punto.id(), punto);
+            for (int nivel = 0; nivel <= NIVEL_MAXIMO; nivel++) {
+                Agregado agregado = agregadosPorNivel.get(nivel)
+                        .computeIfAbsent(claveTile(punto.latitud(), punto.longitud(), nivel), k -> new Agregado());
+                agregado.cantidad++;
+                agregado.sumaLatitud += punto.latitud();
+                agregado.sumaLongitud += punto.longitud();
+                if (punto.precio() != null) {
+                    agregado.precios.merge(punto.precio(), 1, Integer::sum);
+                }
+            }
+            puntosPorTile.computeIfAbsent(claveTile(punto.latitud(), punto.longitud(), NIVEL_MAXIMO), k -> new ArrayList<>())
+                    .add(punto);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido del índice por el de otro índice ya construido.
+     */
+    public void reemplazarPor(IndiceMapa otro) {
+        lock.writeLock().lock();
+        try {
+            for (int nivel = 0; nivel <= NIVEL_MAXIMO; nivel++) {
+                agregadosPorNivel.get(nivel).clear();
+                agregadosPorNivel.get(nivel).putAll(otro.agregadosPorNivel.get(nivel));
+            }
+            puntosPorTile.clear();
+            puntosPorTile.putAll(otro.puntosPorTile);
+            puntos.clear();
+            puntos.putAll(otro.puntos);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Clusters de los tiles del nivel indicado que intersectan el rectángulo.
+     */
+    public List<Cluster> clusters(Rectangulo rectangulo, int nivel) {
+        int nivelAcotado = Math.max(0, Math.min(nivel, NIVEL_MAXIMO));
+        List<Cluster> clusters = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            recorrerTiles(agregadosPorNivel.get(nivelAcotado), rectangulo, nivelAcotado, agregado -> clusters.add(new Cluster(
+                    agregado.sumaLatitud / agregado.cantidad,
+                    agregado.sumaLongitud / agregado.cantidad,
+                    agregado.cantidad,
+                    agregado.precios.isEmpty() ? null : agregado.precios.firstKey()
+            )));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return clusters;
+    }
+
+    /**
+     * Puntos individuales dentro del rectángulo (a lo sumo {@code limite}).
+     */
+    public List<Punto> pines(Rectangulo rectangulo, int limite) {
+        List<Punto> pines = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            recorrerTiles(puntosPorTile, rectangulo, NIVEL_MAXIMO, enTile -> {
+                for (Punto punto : enTile) {
+                    if (pines.size() < limite && contiene(rectangulo, punto)) {
+                        pines.add(punto);
+                    }
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return pines;
+    }
+
+    /**
+     * Visita los valores de los tiles que intersectan el rectángulo. Si el rango
+     * de tiles es mayor que la cantidad de tiles no vacíos, se recorren estos
+     * últimos, de modo que el costo nunca supera al de los tiles existentes.
+     */
+    private <T> void recorrerTiles(Map<Long, T> tiles, Rectangulo rectangulo, int nivel, Consumer<T> visitante) {
+        long xDesde = tileX(rectangulo.oeste(), nivel);
+        long xHasta = tileX(rectangulo.este(), nivel);
+        long yDesde = tileY(rectangulo.norte(), nivel);
+        long yHasta = tileY(rectangulo.sur(), nivel);
+
+        long tilesEnRango = (xHasta - xDesde + 1) * (yHasta - yDesde + 1);
+        if (tilesEnRango > tiles.size()) {
+            tiles.forEach((clave, valor) -> {
+                long x = clave >>> 32;
+                long y = clave & 0xFFFFFFFFL;
+                if (x >= xDesde && x <= xHasta && y >= yDesde && y <= yHasta) {
+                    visitante.accept(valor);
+                }
+            });
+            return;
+        }
+        for (long x = xDesde; x <= xHasta; x++) {
+            for (long y = yDesde; y <= yHasta; y++) {
+                T valor = tiles.get(clave(x, y));
+                if (valor != null) {
+                    visitante.accept(valor);
+                }
+            }
+        }
+    }
+
+    private void eliminarSinLock(Long id) {
+        Punto anterior = puntos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (int nivel = 0; nivel <= NIVEL_MAXIMO; nivel++) {
+            Map<Long, Agregado> agregados = agregadosPorNivel.get(nivel);
+            long clave = claveTile(anterior.latitud(), anterior.longitud(), nivel);
+            Agregado agregado = agregados.get(clave);
+            if (agregado == null) {
+                continue;
+            }
+            agregado.cantidad--;
+            if (agregado.cantidad <= 0) {
+                agregados.remove(clave);
+                continue;
+            }
+            agregado.sumaLatitud -= anterior.latitud();
+            agregado.sumaLongitud -= anterior.longitud();
+            if (anterior.precio() != null) {
+                agregado.precios.computeIfPresent(anterior.precio(), (precio, veces) -> veces > 1 ? veces - 1 : null);
+            }
+        }
+        long claveMaxima = claveTile(anterior.latitud(), anterior.longitud(), NIVEL_MAXIMO);
+        List<Punto> enTile = puntosPorTile.get(claveMaxima);
+        if (enTile != null) {
+            enTile.removeIf(p -> p.id().equals(id));
+            if (enTile.isEmpty()) {
+                puntosPorTile.remove(claveMaxima);
+            }
+        }
+    }
+
+    private static boolean contiene(Rectangulo rectangulo, Punto punto) {
+        return punto.latitud() >= rectangulo.sur() && punto.latitud() <= rectangulo.norte()
+                && punto.longitud() >= rectangulo.oeste() && punto.longitud() <= rectangulo.este();
+    }
+
+    private static long claveTile(double latitud, double longitud, int nivel) {
+        return clave(tileX(longitud, nivel), tileY(latitud, nivel));
+    }
+
+    private static long clave(long x, long y) {
+        return (x << 32) | y;
+    }
+
+    private static long tileX(double longitud, int nivel) {
+        long tiles = 1L << nivel;
+        long x = (long) Math.floor((longitud + 180.0) / 360.0 * tiles);
+        return Math.max(0, Math.min(x, tiles - 1));
+    }
+
+    private static long tileY(double latitud, int nivel) {
+        long tiles = 1L << nivel;
+        double radianes = Math.toRadians(Math.max(-LATITUD_MAXIMA, Math.min(latitud, LATITUD_MAXIMA)));
+        double y = (1.0 - Math.log(Math.tan(radianes) + 1.0 / Math.cos(radianes)) / Math.PI) / 2.0 * tiles;
+        return Math.max(0, Math.min((long) Math.floor(y), tiles - 1));
+    }
+}
@@ -0,0 +1,202 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de trigramas en memoria para búsquedas tolerantes a errores de tipeo.
+ *
+ * Funciona sobre el vocabulario, al estilo de pg_trgm: cada palabra distinta
+ * se descompone en trigramas (con relleno de espacios) y cada trigrama apunta
+ * a las palabras que lo contienen. Una palabra de la consulta se compara sólo
+ * contra las palabras que comparten al menos un trigrama con ella, y la
+ * similitud es la de Jaccard entre ambos conjuntos de trigramas.
+ *
+ * Así "kincho" encuentra "quincho" sin recorrer todos los documentos.
+ */
+public class IndiceTrigramas {
+
+    /**
+     * Similitud mínima para considerar que dos palabras coinciden (mismo umbral por defecto que pg_trgm).
+     */
+    private static final double SIMILITUD_MINIMA = 0.3;
+
+    /**
+     * Cantidad máxima de palabras del vocabulario que se aceptan como variantes de cada palabra de la consulta.
+     */
+    private static final int MAX_VARIANTES_POR_PALABRA = 20;
+
+    private final Map<String, Set<String>> palabrasPorTrigrama = new HashMap<>();
+    private final Map<String, Set<Long>> documentosPorPalabra = new HashMap<>();
+    private final Map<Long, Set<String>> palabrasPorDocumento = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexa (o reindexa) un documento a partir de sus textos.
+     */
+    public void indexar(Long id, List<String> textos) {
+        Set<String> palabras = new HashSet<>();
+        for (String texto : textos) {
+            palabras.addAll(AnalizadorTexto.palabras(texto));
+        }
+
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+            for (String palabra : palabras) {
+                Set<Long> documentos = documentosPorPalabra.computeIfAbsent(palabra, p -> new HashSet<>());
+                if (documentos.isEmpty()) {
+                    // Palabra nueva en el vocabulario: registramos sus trigramas
+                    for (String trigrama : trigramas(palabra)) {
+                        palabrasPorTrigrama.computeIfAbsent(trigrama, t -> new HashSet<>()).add(palabra);
+                    }
+                }
+                documentos.add(id);
+            }
+            palabrasPorDocumento.put(id, palabras);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza todo el contenido del índice por el de otro índice ya construido.
+     */
+    public void reemplazarPor(IndiceTrigramas otro) {
+        lock.writeLock().lock();
+        try {
+            palabrasPorTrigrama.clear();
+            documentosPorPalabra.clear();
+            palabrasPorDocumento.clear();
+            palabrasPorTrigrama.putAll(otro.palabrasPorTrigrama);
+            documentosPorPalabra.putAll(otro.documentosPorPalabra);
+            palabrasPorDocumento.putAll(otro.palabrasPorDocumento);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca documentos cuyas palabras se parecen a las de la consulta.
+     *
+     * El puntaje de un documento es la suma, por cada palabra de la consulta,
+     * de la mejor similitud encontrada entre sus palabras.
+     *
+     * @param consulta texto libre, posiblemente con errores de tipeo.
+     * @param limite   cantidad máxima de resultados.
+     * @return ids ordenados de más a menos similar.
+     */
+    public List<Long> buscar(String consulta, int limite) {
+        List<String> palabrasConsulta = AnalizadorTexto.palabras(consulta).stream().distinct().toList();
+        if (palabrasConsulta.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Double> puntajes = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (String palabraConsulta : palabrasConsulta) {
+                Map<Long, Double> mejorPorDocumento = new HashMap<>();
+                for (Map.Entry<String, Double> variante : variantes(palabraConsulta).entrySet()) {
+                    for (Long id : documentosPorPalabra.getOrDefault(variante.getKey(), Set.of())) {
+                        mejorPorDocumento.merge(id, variante.getValue(), Math::max);
+                    }
+                }
+                mejorPorDocumento.forEach((id, similitud) -> puntajes.merge(id, similitud, Double::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return puntajes.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                .limit(limite)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Palabras del vocabulario similares a la dada, con su similitud.
+     * Sólo se evalúan las que comparten algún trigrama (conjunto de candidatos acotado).
+     */
+    private Map<String, Double> variantes(String palabra) {
+        Set<String> trigramasConsulta = trigramas(palabra);
+
+        Map<String, Integer> compartidos = new HashMap<>();
+        for (String trigrama : trigramasConsulta) {
+            for (String candidata : palabrasPorTrigrama.getOrDefault(trigrama, Set.of())) {
+                compartidos.merge(candidata, 1, Integer::sum);
+            }
+        }
+
+        Map<String, Double> similitudes = new HashMap<>();
+        compartidos.forEach((candidata, comunes) -> {
+            int totalCandidata = trigramas(candidata).size();
+            double similitud = (double) comunes / (trigramasConsulta.size() + totalCandidata - comunes);
+            if (similitud >= SIMILITUD_MINIMA) {
+                similitudes.put(candidata, similitud);
+            }
+        });
+
+        if (similitudes.size() <= MAX_VARIANTES_POR_PALABRA) {
+            return similitudes;
+        }
+        Map<String, Double> mejores = new HashMap<>();
+        similitudes.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(MAX_VARIANTES_POR_PALABRA)
+                .forEach(e -> mejores.put(e.getKey(), e.getValue()));
+        return mejores;
+    }
+
+    /**
+     * Trigramas de una palabra con el mismo relleno que pg_trgm: dos espacios al inicio y uno al final.
+     */
+    static Set<String> trigramas(String palabra) {
+        String relleno = "  " + palabra + " ";
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + 3 <= relleno.length(); i++) {
+            trigramas.add(relleno.substring(i, i + 3));
+        }
+        return trigramas;
+    }
+
+    private void eliminarSinLock(Long id) {
+        Set<String> palabras = palabrasPorDocumento.remove(id);
+        if (palabras == null) {
+            return;
+        }
+        for (String palabra : palabras) {
+            Set<Long> documentos = documentosPorPalabra.get(palabra);
+            if (documentos == null) {
+                continue;
+            }
+            documentos.remove(id);
+            if (documentos.isEmpty()) {
+                // La palabra sale del vocabulario
+                documentosPorPalabra.remove(palabra);
+                for (String trigrama : trigramas(palabra)) {
+                    Set<String> conTrigrama = palabrasPorTrigrama.get(trigrama);
+                    if (conTrigrama != null) {
+                        conTrigrama.remove(palabra);
+                        if (conTrigrama.isEmpty()) {
+                            palabrasPorTrigrama.remove(trigrama);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
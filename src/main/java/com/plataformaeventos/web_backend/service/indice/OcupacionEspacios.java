@@ -0,0 +1,256 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import com.plataformaeventos.web_backend.event.ReservaModificadaEvent;
+import com.plataformaeventos.web_backend.event.ReservaSincronizadaEvent;
+import com.plataformaeventos.web_backend.exception.DatosInvalidosException;
+import com.plataformaeventos.web_backend.model.EstadoReserva;
+import com.plataformaeventos.web_backend.model.Reserva;
+import com.plataformaeventos.web_backend.repository.ReservaIntervaloProyeccion;
+import com.plataformaeventos.web_backend.repository.ReservaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Ocupación de los espacios a partir de sus reservas no canceladas.
+ *
+ * Mantiene:
+ *  - Un {@link CalendarioOcupacion} que leen directamente el detalle del espacio
+ *    y el endpoint de fechas ocupadas, en lugar de expandir día por día cada
+ *    reserva en cada consulta.
+ *  - Un {@link IndiceIntervalos} para resolver solapamientos en lecturas
+ *    (cotizaciones por lote) sin ir a la base de datos. La validación al reservar
+ *    no lo usa: el índice es por réplica y puede ir atrasado respecto de las demás.
+ *
+ * Mismo ciclo de vida que {@link IndiceBusquedaEspacios}: carga al iniciar,
+ * actualización después de cada commit y reconstrucción periódica (que además
+ * corre el origen del calendario al día de hoy). Los cambios de otras réplicas
+ * llegan enseguida por LISTEN/NOTIFY ({@link ReservaSincronizadaEvent}), así que
+ * la reconstrucción periódica sólo es una red de seguridad.
+ */
+@Component
+@RequiredArgsConstructor
+public class OcupacionEspacios {
+
+    private final ReservaRepository reservaRepository;
+    private final CalendarioOcupacion calendario = new CalendarioOcupacion(LocalDate.now());
+    private final IndiceIntervalos intervalos = new IndiceIntervalos();
+
+    /**
+     * Desde cuándo el índice de intervalos contiene todas las reservas activas.
+     * Null hasta la primera carga.
+     */
+    private volatile LocalDateTime coberturaIntervalos;
+
+    /**
+     * Reservas modificadas durante una reconstrucción (guardadas sólo mientras dura).
+     * También es el monitor que ordena los cambios respecto del reemplazo de los índices.
+     */
+    private final List<Reserva> cambiosDuranteReconstruccion = new ArrayList<>();
+    private boolean reconstruyendo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        reconstruir();
+        System.out.println("📅 Calendario de ocupación cargado: " + calendario.cantidadEspacios() + " espacios con reservas.");
+    }
+
+    @Scheduled(fixedDelayString = "${indice.busqueda.refresco-ms:900000}",
+            initialDelayString = "${indice.busqueda.refresco-ms:900000}")
+    public synchronized void reconstruir() {
+        synchronized (cambiosDuranteReconstruccion) {
+            reconstruyendo = true;
+            cambiosDuranteReconstruccion.clear();
+        }
+
+        LocalDate hoy = LocalDate.now();
+        CalendarioOcupacion nuevo = new CalendarioOcupacion(hoy);
+        List<IndiceIntervalos.Intervalo> nuevosIntervalos = new ArrayList<>();
+        for (ReservaIntervaloProyeccion reserva : reservaRepository.findIntervalosActivosDesde(hoy.atStartOfDay())) {
+            nuevo.guardar(reserva.getId(), reserva.getEspacioId(),
+                    reserva.getFechaInicio().toLocalDate(), ultimoDiaOcupado(reserva.getFechaFin()));
+            nuevosIntervalos.add(new IndiceIntervalos.Intervalo(reserva.getId(), reserva.getEspacioId(),
+                    reserva.getFechaInicio(), reserva.getFechaFin()));
+        }
+        IndiceIntervalos nuevoIndice = IndiceIntervalos.construir(nuevosIntervalos);
+
+        // Las reservas confirmadas mientras se leía la instantánea pueden no estar en ella:
+        // se vuelven a aplicar, en orden, después del reemplazo
+        synchronized (cambiosDuranteReconstruccion) {
+            calendario.reemplazarPor(nuevo);
+            intervalos.reemplazarPor(nuevoIndice);
+            cambiosDuranteReconstruccion.forEach(this::aplicar);
+            cambiosDuranteReconstruccion.clear();
+            reconstruyendo = false;
+        }
+        coberturaIntervalos = hoy.atStartOfDay();
+    }
+
+    /**
+     * Espacios con reservas que no tienen ninguna ventana libre del patrón entre hoy y {@code hasta}.
+     */
+    public Set<Long> espaciosSinVentanaLibre(LocalDate hasta, int dias, Set<DayOfWeek> diasDeInicio) {
+        return calendario.espaciosSinVentanaLibre(LocalDate.now(), hasta, dias, diasDeInicio);
+    }
+
+    /**
+     * Primer día desde hoy en que empieza una ventana libre del patrón, o null.
+     */
+    public LocalDate primeraVentanaLibre(Long espacioId, LocalDate hasta, int dias, Set<DayOfWeek> diasDeInicio) {
+        return calendario.primeraVentanaLibre(espacioId, LocalDate.now(), hasta, dias, diasDeInicio);
+    }
+
+    /**
+     * Indica si el índice de intervalos puede responder por un rango que empieza en {@code inicio}:
+     * cualquier reserva que se solape con él termina después del comienzo de la cobertura.
+     */
+    public boolean cubre(LocalDateTime inicio) {
+        LocalDateTime cobertura = coberturaIntervalos;
+        return cobertura != null && !inicio.isBefore(cobertura);
+    }
+
+    /**
+     * Días ocupados del espacio entre {@code desde} y {@code hasta} (ambos incluidos), en orden y sin repetidos.
+     * Sin {@code desde} se toma hoy; sin {@code hasta}, todo el horizonte del calendario.
+     *
+     * Si la ventana cae dentro del calendario se responde desde memoria; si no (días pasados o
+     * más allá del horizonte) se consultan sólo las reservas que tocan la ventana.
+     */
+    public List<LocalDate> diasOcupados(Long espacioId, LocalDate desde, LocalDate hasta) {
+        if (desde == null) {
+            desde = LocalDate.now();
+        }
+        if (hasta == null) {
+            hasta = desde.plusDays(CalendarioOcupacion.HORIZONTE_DIAS - 1);
+        }
+        validarVentana(desde, hasta);
+        if (calendario.cubre(desde, hasta)) {
+            return calendario.diasOcupados(espacioId, desde, hasta);
+        }
+
+        SortedSet<LocalDate> dias = new TreeSet<>();
+        for (ReservaIntervaloProyeccion reserva : reservaRepository.findIntervalosActivosEntre(
+                espacioId, desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            LocalDate primero = reserva.getFechaInicio().toLocalDate().isBefore(desde) ? desde : reserva.getFechaInicio().toLocalDate();
+            LocalDate ultimoOcupado = ultimoDiaOcupado(reserva.getFechaFin());
+            LocalDate ultimo = ultimoOcupado.isAfter(hasta) ? hasta : ultimoOcupado;
+            for (LocalDate dia = primero; !dia.isAfter(ultimo); dia = dia.plusDays(1)) {
+                dias.add(dia);
+            }
+        }
+        return new ArrayList<>(dias);
+    }
+
+    /**
+     * Igual que {@link #diasOcupados}, con los días consecutivos agrupados en tramos.
+     */
+    public List<CalendarioOcupacion.Tramo> tramosOcupados(Long espacioId, LocalDate desde, LocalDate hasta) {
+        LocalDate primero = desde != null ? desde : LocalDate.now();
+        LocalDate ultimo = hasta != null ? hasta : primero.plusDays(CalendarioOcupacion.HORIZONTE_DIAS - 1);
+        validarVentana(primero, ultimo);
+        if (calendario.cubre(primero, ultimo)) {
+            return calendario.tramosOcupados(espacioId, primero, ultimo);
+        }
+
+        List<CalendarioOcupacion.Tramo> tramos = new ArrayList<>();
+        LocalDate tramoDesde = null;
+        LocalDate anterior = null;
+        for (LocalDate dia : diasOcupados(espacioId, primero, ultimo)) {
+            if (anterior == null || !dia.equals(anterior.plusDays(1))) {
+                if (tramoDesde != null) {
+                    tramos.add(new CalendarioOcupacion.Tramo(tramoDesde, anterior));
+                }
+                tramoDesde = dia;
+            }
+            anterior = dia;
+        }
+        if (tramoDesde != null) {
+            tramos.add(new CalendarioOcupacion.Tramo(tramoDesde, anterior));
+        }
+        return tramos;
+    }
+
+    /**
+     * Último día que ocupa una reserva que termina en {@code fechaFin}. El fin es exclusivo:
+     * una reserva que termina justo a medianoche (un día completo) no ocupa el día siguiente.
+     */
+    public static LocalDate ultimoDiaOcupado(LocalDateTime fechaFin) {
+        LocalDate dia = fechaFin.toLocalDate();
+        return fechaFin.toLocalTime().equals(LocalTime.MIDNIGHT) ? dia.minusDays(1) : dia;
+    }
+
+    private static void validarVentana(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde) || ChronoUnit.DAYS.between(desde, hasta) >= CalendarioOcupacion.HORIZONTE_DIAS) {
+            throw new DatosInvalidosException("La ventana de fechas debe ser válida y de hasta " + CalendarioOcupacion.HORIZONTE_DIAS + " días.");
+        }
+    }
+
+    /**
+     * Subconjunto de los espacios indicados que tienen alguna reserva activa solapada con [inicio, fin).
+     * Sólo es confiable cuando {@link #cubre(LocalDateTime)} es verdadero.
+     */
+    public Set<Long> espaciosConSolapamiento(Collection<Long> espacioIds, LocalDateTime inicio, LocalDateTime fin) {
+        Set<Long> ocupados = new HashSet<>();
+        for (Long espacioId : espacioIds) {
+            if (intervalos.haySolapamiento(espacioId, inicio, fin)) {
+                ocupados.add(espacioId);
+            }
+        }
+        return ocupados;
+    }
+
+    // Primero que el resto de los oyentes (por ejemplo, las notificaciones SSE), que leen el calendario
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarReserva(ReservaModificadaEvent evento) {
+        registrar(evento.reserva());
+    }
+
+    /**
+     * Reservas creadas o modificadas en otras réplicas (ver CanalReservas).
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void alSincronizarReserva(ReservaSincronizadaEvent evento) {
+        registrar(evento.reserva());
+    }
+
+    private void registrar(Reserva reserva) {
+        synchronized (cambiosDuranteReconstruccion) {
+            aplicar(reserva);
+            if (reconstruyendo) {
+                cambiosDuranteReconstruccion.add(reserva);
+            }
+        }
+    }
+
+    private void aplicar(Reserva reserva) {
+        if (reserva.getEstado() == EstadoReserva.CANCELADA) {
+            calendario.eliminar(reserva.getId());
+            intervalos.eliminar(reserva.getId());
+            return;
+        }
+        calendario.guardar(reserva.getId(), reserva.getEspacio().getId(),
+                reserva.getFechaInicio().toLocalDate(), ultimoDiaOcupado(reserva.getFechaFin()));
+        intervalos.guardar(new IndiceIntervalos.Intervalo(reserva.getId(), reserva.getEspacio().getId(),
+                reserva.getFechaInicio(), reserva.getFechaFin()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * Ubicación que se muestra de los espacios con dirección aproximada.
+ *
+ * Cada espacio se desplaza siempre lo mismo (derivado de su id con HMAC y un secreto
+ * del servidor): repetir consultas no permite promediar posiciones distintas hasta
+ * llegar a la real, y sin el secreto el desplazamiento no puede recalcularse.
+ * Se aplica antes de cargar los índices espaciales, así que pines, clusters y
+ * distancias nunca parten de la ubicación exacta.
+ */
+@Component
+public class UbicacionAproximada {
+
+    /**
+     * Desplazamiento máximo por eje, en grados (≈ 220 m de latitud).
+     */
+    static final double DESPLAZAMIENTO_MAXIMO = 0.002;
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final SecretKeySpec clave;
+
+    public UbicacionAproximada(@Value("${ubicacion.aproximada.secreto}") String secreto) {
+        this.clave = new SecretKeySpec(secreto.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+    }
+
+    public record Coordenadas(double latitud, double longitud) {
+    }
+
+    /**
+     * Coordenadas desplazadas del espacio; siempre las mismas para el mismo id.
+     */
+    public Coordenadas difuminar(Long espacioId, double latitud, double longitud) {
+        ByteBuffer desplazamientos = ByteBuffer.wrap(hmac(espacioId));
+        double latitudMostrada = latitud + escalar(desplazamientos.getLong());
+        double longitudMostrada = longitud + escalar(desplazamientos.getLong());
+        return new Coordenadas(
+                Math.max(-90, Math.min(90, latitudMostrada)),
+                Math.max(-180, Math.min(180, longitudMostrada)));
+    }
+
+    private byte[] hmac(Long espacioId) {
+        try {
+            // Mac no es thread-safe: una instancia por llamada
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(clave);
+            return mac.doFinal(ByteBuffer.allocate(Long.BYTES).putLong(espacioId).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular la ubicación aproximada.", e);
+        }
+    }
+
+    /**
+     * Lleva 64 bits uniformes a un desplazamiento en [-DESPLAZAMIENTO_MAXIMO, DESPLAZAMIENTO_MAXIMO).
+     */
+    private static double escalar(long bits) {
+        double unitario = (bits >>> 11) * 0x1.0p-53;
+        return (unitario * 2 - 1) * DESPLAZAMIENTO_MAXIMO;
+    }
+}
@@ -0,0 +1,32 @@
+package com.plataformaeventos.web_backend.service.precio;
+
+import com.plataformaeventos.web_backend.model.CobroDeposito;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Resultado detallado de cotizar un rango con un {@link PlanPrecios}.
+ *
+ * @param lineas         conceptos cobrados (alquiler por tipo de día, limpieza, depósito).
+ * @param alquiler       subtotal del alquiler, sin cargos adicionales.
+ * @param cargoLimpieza  cargo fijo de limpieza (cero si el espacio no lo tiene).
+ * @param deposito       depósito reembolsable (cero si el espacio no lo pide).
+ * @param cobroDeposito  cómo se cobra el depósito; sólo PLATAFORMA se suma al total.
+ * @param total          importe a cobrar por la plataforma.
+ */
+public record Cotizacion(
+        List<Linea> lineas,
+        BigDecimal alquiler,
+        BigDecimal cargoLimpieza,
+        BigDecimal deposito,
+        CobroDeposito cobroDeposito,
+        BigDecimal total
+) {
+
+    /**
+     * Un concepto de la cotización: cantidad × precio unitario.
+     */
+    public record Linea(String concepto, BigDecimal cantidad, BigDecimal precioUnitario, BigDecimal importe) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.plataformaeventos.web_backend.service.precio;
+
+import com.plataformaeventos.web_backend.event.EspacioEliminadoEvent;
+import com.plataformaeventos.web_backend.event.EspacioModificadoEvent;
+import com.plataformaeventos.web_backend.exception.ConflictoReservaException;
+import com.plataformaeventos.web_backend.exception.RecursoNoEncontradoException;
+import com.plataformaeventos.web_backend.model.Espacio;
+import com.plataformaeventos.web_backend.model.EstadoEspacio;
+import com.plataformaeventos.web_backend.repository.EspacioRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cotiza reservas a partir de los {@link PlanPrecios} de cada espacio.
+ *
+ * Guarda en memoria el plan compilado de cada espacio publicado y las últimas
+ * cotizaciones pedidas (LRU por espacio y rango), para que el frontend pueda
+ * recotizar mientras el usuario elige fechas sin ir a la base de datos.
+ *
+ * Ambos cachés se invalidan cuando el espacio se modifica (por ejemplo, al editar
+ * precios o pausarlo) y se vacían periódicamente para converger con otras réplicas.
+ */
+@Component
+@RequiredArgsConstructor
+public class CotizadorPrecios {
+
+    private static final int MAX_COTIZACIONES = 2000;
+
+    private record ClaveCotizacion(Long espacioId, LocalDateTime inicio, LocalDateTime fin) {
+    }
+
+    private final EspacioRepository espacioRepository;
+    private final Map<Long, PlanPrecios> planes = new ConcurrentHashMap<>();
+    private final Map<ClaveCotizacion, Cotizacion> cotizaciones = Collections.synchronizedMap(
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ClaveCotizacion, Cotizacion> mayor) {
+                    return size() > MAX_COTIZACIONES;
+                }
+            });
+
+    /**
+     * Cotiza un espacio publicado usando los cachés.
+     */
+    public Cotizacion cotizar(Long espacioId, LocalDateTime inicio, LocalDateTime fin) {
+        ClaveCotizacion clave = new ClaveCotizacion(espacioId, inicio, fin);
+        Cotizacion enCache = cotizaciones.get(clave);
+        if (enCache != null) {
+            return enCache;
+        }
+        Cotizacion cotizacion = planes.computeIfAbsent(espacioId, this::cargarPlan).cotizar(inicio, fin);
+        cotizaciones.put(clave, cotizacion);
+        return cotizacion;
+    }
+
+    /**
+     * Cotiza varios espacios para el mismo rango. Los planes que no están en caché
+     * se cargan con una sola consulta; los espacios inexistentes o no publicados
+     * quedan fuera del resultado.
+     */
+    public Map<Long, Cotizacion> cotizarVarios(Collection<Long> espacioIds, LocalDateTime inicio, LocalDateTime fin) {
+        List<Long> sinPlan = espacioIds.stream().filter(id -> !planes.containsKey(id)).distinct().toList();
+        if (!sinPlan.isEmpty()) {
+            for (Espacio espacio : espacioRepository.findAllById(sinPlan)) {
+                if (espacio.getEstado() == EstadoEspacio.PUBLICADO) {
+                    planes.putIfAbsent(espacio.getId(), PlanPrecios.compilar(espacio));
+                }
+            }
+        }
+
+        Map<Long, Cotizacion> resultado = new HashMap<>();
+        for (Long espacioId : espacioIds) {
+            ClaveCotizacion clave = new ClaveCotizacion(espacioId, inicio, fin);
+            Cotizacion cotizacion = cotizaciones.get(clave);
+            if (cotizacion == null) {
+                PlanPrecios plan = planes.get(espacioId);
+                if (plan == null) {
+                    continue;
+                }
+                cotizacion = plan.cotizar(inicio, fin);
+                cotizaciones.put(clave, cotizacion);
+            }
+            resultado.put(espacioId, cotizacion);
+        }
+        return resultado;
+    }
+
+    /**
+     * Cotiza con el estado actual de la entidad, sin usar el caché (para confirmar reservas).
+     */
+    public Cotizacion cotizar(Espacio espacio, LocalDateTime inicio, LocalDateTime fin) {
+        return planActualizado(espacio).cotizar(inicio, fin);
+    }
+
+    /**
+     * Compila el plan desde la entidad. Si cambió respecto del cacheado, se reemplaza
+     * y se descartan sus cotizaciones.
+     */
+    public PlanPrecios planActualizado(Espacio espacio) {
+        PlanPrecios plan = PlanPrecios.compilar(espacio);
+        PlanPrecios anterior = planes.put(espacio.getId(), plan);
+        if (anterior != null && !anterior.equals(plan)) {
+            descartarCotizaciones(espacio.getId());
+        }
+        return plan;
+    }
+
+    /**
+     * Cada {@code precios.cache.refresco-ms}: acota cuánto puede cotizar esta réplica con
+     * un precio editado en otra, independientemente del refresco de los índices de búsqueda.
+     */
+    @Scheduled(fixedDelayString = "${precios.cache.refresco-ms:300000}",
+            initialDelayString = "${precios.cache.refresco-ms:300000}")
+    public void vaciar() {
+        planes.clear();
+        cotizaciones.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarEspacio(EspacioModificadoEvent evento) {
+        invalidar(evento.espacio().getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alEliminarEspacio(EspacioEliminadoEvent evento) {
+        invalidar(evento.espacioId());
+    }
+
+    private void invalidar(Long espacioId) {
+        planes.remove(espacioId);
+        descartarCotizaciones(espacioId);
+    }
+
+    private void descartarCotizaciones(Long espacioId) {
+        synchronized (cotizaciones) {
+            cotizaciones.keySet().removeIf(clave -> clave.espacioId().equals(espacioId));
+        }
+    }
+
+    private PlanPrecios cargarPlan(Long espacioId) {
+        Espacio espacio = espacioRepository.findById(espacioId)
+                .orElseThrow(() -> new RecursoNoEncontradoException("El espacio especificado no existe."));
+        if (espacio.getEstado() != EstadoEspacio.PUBLICADO) {
+            throw new ConflictoReservaException("El espacio seleccionado no se encuentra activo.");
+        }
+        return PlanPrecios.compilar(espacio);
+    }
+}
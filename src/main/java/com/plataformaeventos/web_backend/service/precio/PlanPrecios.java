@@ -0,0 +1,176 @@
+package com.plataformaeventos.web_backend.service.precio;
+
+import com.plataformaeventos.web_backend.model.CobroDeposito;
+import com.plataformaeventos.web_backend.model.Espacio;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reglas de precio de un espacio, ya normalizadas e inmutables.
+ *
+ * Se compila una vez a partir del {@link Espacio} (unidad, precio de semana y de
+ * fin de semana, limpieza y depósito) y después cotiza cualquier rango sin volver
+ * a mirar la entidad. Sábados y domingos usan el precio de fin de semana si el
+ * espacio lo define.
+ *
+ * Unidades:
+ *  - DIA: un precio por día calendario (el mismo día cuenta como uno).
+ *  - EVENTO: precio fijo por reserva, según el día de inicio.
+ *  - HORA (y cualquier otra): por hora, con los minutos de fin de semana al precio de fin de semana.
+ */
+public record PlanPrecios(
+        String unidad,
+        BigDecimal precio,
+        BigDecimal precioFinDeSemana,
+        BigDecimal cargoLimpieza,
+        BigDecimal montoDeposito,
+        CobroDeposito cobroDeposito
+) {
+
+    private static final BigDecimal MINUTOS_POR_HORA = BigDecimal.valueOf(60);
+
+    /**
+     * Un tramo a cotizar. Una reserva por días sueltos tiene varios.
+     */
+    public record Rango(LocalDateTime inicio, LocalDateTime fin) {
+    }
+
+    public static PlanPrecios compilar(Espacio espacio) {
+        BigDecimal precio = normalizar(espacio.getPrecio());
+        return new PlanPrecios(
+                espacio.getUnidadPrecio() != null ? espacio.getUnidadPrecio().toUpperCase() : "HORA",
+                precio,
+                espacio.getPrecioFinDeSemana() != null ? normalizar(espacio.getPrecioFinDeSemana()) : precio,
+                normalizar(espacio.getCargoLimpieza()),
+                normalizar(espacio.getMontoDeposito()),
+                espacio.getCobroDeposito()
+        );
+    }
+
+    public Cotizacion cotizar(LocalDateTime inicio, LocalDateTime fin) {
+        return cotizar(List.of(new Rango(inicio, fin)));
+    }
+
+    /**
+     * Cotiza varios tramos como una sola reserva: el alquiler se suma por tramo
+     * y la limpieza y el depósito se cobran una única vez.
+     */
+    public Cotizacion cotizar(List<Rango> rangos) {
+        List<Cotizacion.Linea> lineas = new ArrayList<>();
+
+        switch (unidad) {
+            case "DIA" -> {
+                long dias = 0;
+                long diasFinDeSemana = 0;
+                for (Rango rango : rangos) {
+                    long diasRango = ChronoUnit.DAYS.between(rango.inicio().toLocalDate(), rango.fin().toLocalDate());
+                    if (diasRango == 0) diasRango = 1;
+                    dias += diasRango;
+                    diasFinDeSemana += contarDiasFinDeSemana(rango.inicio().toLocalDate(), diasRango);
+                }
+                agregarAlquiler(lineas, "Días", "Días de fin de semana",
+                        BigDecimal.valueOf(dias - diasFinDeSemana), BigDecimal.valueOf(diasFinDeSemana));
+            }
+            case "EVENTO" -> {
+                long eventosFinDeSemana = rangos.stream().filter(rango -> esFinDeSemana(rango.inicio().toLocalDate())).count();
+                agregarAlquiler(lineas, "Evento", "Evento en fin de semana",
+                        BigDecimal.valueOf(rangos.size() - eventosFinDeSemana), BigDecimal.valueOf(eventosFinDeSemana));
+            }
+            default -> {
+                long minutos = 0;
+                long minutosFinDeSemana = 0;
+                for (Rango rango : rangos) {
+                    minutos += Duration.between(rango.inicio(), rango.fin()).toMinutes();
+                    minutosFinDeSemana += contarMinutosFinDeSemana(rango.inicio(), rango.fin());
+                }
+                agregarAlquiler(lineas, "Horas", "Horas de fin de semana",
+                        horas(minutos - minutosFinDeSemana), horas(minutosFinDeSemana));
+            }
+        }
+
+        BigDecimal alquiler = lineas.stream().map(Cotizacion.Linea::importe).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = alquiler;
+
+        if (cargoLimpieza.signum() > 0) {
+            lineas.add(new Cotizacion.Linea("Limpieza", BigDecimal.ONE, cargoLimpieza, cargoLimpieza));
+            total = total.add(cargoLimpieza);
+        }
+        if (montoDeposito.signum() > 0 && cobroDeposito == CobroDeposito.PLATAFORMA) {
+            lineas.add(new Cotizacion.Linea("Depósito reembolsable", BigDecimal.ONE, montoDeposito, montoDeposito));
+            total = total.add(montoDeposito);
+        }
+
+        return new Cotizacion(List.copyOf(lineas), alquiler, cargoLimpieza, montoDeposito, cobroDeposito,
+                total.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private void agregarAlquiler(List<Cotizacion.Linea> lineas, String concepto, String conceptoFinDeSemana,
+                                 BigDecimal cantidad, BigDecimal cantidadFinDeSemana) {
+        // Sin precio diferenciado, todo se cobra como una sola línea
+        if (precioFinDeSemana.compareTo(precio) == 0) {
+            cantidad = cantidad.add(cantidadFinDeSemana);
+            cantidadFinDeSemana = BigDecimal.ZERO;
+        }
+        if (cantidad.signum() > 0) {
+            lineas.add(new Cotizacion.Linea(concepto, cantidad, precio, importe(cantidad, precio)));
+        }
+        if (cantidadFinDeSemana.signum() > 0) {
+            lineas.add(new Cotizacion.Linea(conceptoFinDeSemana, cantidadFinDeSemana, precioFinDeSemana,
+                    importe(cantidadFinDeSemana, precioFinDeSemana)));
+        }
+    }
+
+    /**
+     * Sábados y domingos entre los {@code dias} días que empiezan en {@code desde}.
+     */
+    private static long contarDiasFinDeSemana(LocalDate desde, long dias) {
+        long semanasCompletas = dias / 7;
+        long cantidad = semanasCompletas * 2;
+        LocalDate dia = desde.plusWeeks(semanasCompletas);
+        for (long i = 0; i < dias % 7; i++, dia = dia.plusDays(1)) {
+            if (esFinDeSemana(dia)) cantidad++;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Minutos del rango que caen en sábado o domingo.
+     */
+    private static long contarMinutosFinDeSemana(LocalDateTime inicio, LocalDateTime fin) {
+        long minutos = 0;
+        LocalDateTime desde = inicio;
+        while (desde.isBefore(fin)) {
+            LocalDateTime hasta = desde.toLocalDate().plusDays(1).atStartOfDay();
+            if (hasta.isAfter(fin)) hasta = fin;
+            if (esFinDeSemana(desde.toLocalDate())) {
+                minutos += Duration.between(desde, hasta).toMinutes();
+            }
+            desde = hasta;
+        }
+        return minutos;
+    }
+
+    private static boolean esFinDeSemana(LocalDate dia) {
+        return dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    private static BigDecimal horas(long minutos) {
+        return BigDecimal.valueOf(minutos).divide(MINUTOS_POR_HORA, 2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal importe(BigDecimal cantidad, BigDecimal precioUnitario) {
+        return precioUnitario.multiply(cantidad).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal normalizar(BigDecimal monto) {
+        return monto != null ? monto.setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO.setScale(2);
+    }
+}
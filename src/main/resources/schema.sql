@@ -0,0 +1,68 @@
+-- =====================================================================
+-- Complementos al esquema que genera Hibernate (ddl-auto=update).
+-- Se ejecuta después de Hibernate en cada arranque, así que todo debe ser idempotente.
+-- Separador de sentencias: @@ (los bloques DO contienen ';').
+-- =====================================================================
+
+-- Necesario para combinar igualdad sobre espacio_id con solapamiento de rangos en un índice GiST
+CREATE EXTENSION IF NOT EXISTS btree_gist@@
+
+-- Rango [fecha_inicio, fecha_fin) de cada reserva, calculado por la base de datos
+ALTER TABLE reservas ADD COLUMN IF NOT EXISTS periodo tsrange
+    GENERATED ALWAYS AS (tsrange(fecha_inicio, fecha_fin, '[)')) STORED@@
+
+-- Verificación previa a la restricción: si los datos ya tienen reservas solapadas, no se crea
+-- ni se modifica ninguna reserva. El arranque falla con la lista de pares en conflicto, para
+-- resolverlos a mano (con el cliente y el propietario) antes de volver a arrancar.
+-- Sólo corre mientras la restricción no exista (una vez creada no puede haber solapamientos).
+DO $$
+DECLARE
+    conflictos TEXT;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reservas_sin_solapamiento') THEN
+        RETURN;
+    END IF;
+
+    SELECT string_agg(format('espacio %s: reservas %s (%s) y %s (%s)',
+                             a.espacio_id, a.id, a.estado, b.id, b.estado), E'\n' ORDER BY a.espacio_id, a.id, b.id)
+    INTO conflictos
+    FROM reservas a
+    JOIN reservas b ON b.espacio_id = a.espacio_id AND b.id > a.id AND b.periodo && a.periodo
+    WHERE a.estado <> 'CANCELADA' AND b.estado <> 'CANCELADA';
+
+    IF conflictos IS NOT NULL THEN
+        RAISE EXCEPTION 'No se puede crear reservas_sin_solapamiento: hay reservas solapadas.'
+            USING DETAIL = conflictos,
+                  HINT = 'Cancele o reprograme manualmente una reserva de cada par y vuelva a iniciar la aplicación.';
+    END IF;
+END
+$$@@
+
+-- Dos reservas no canceladas del mismo espacio no pueden solaparse.
+-- Sin manejo de errores a propósito: si no se puede crear, la aplicación no arranca,
+-- porque la validación de solapamientos depende de esta restricción.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'reservas_sin_solapamiento') THEN
+        ALTER TABLE reservas ADD CONSTRAINT reservas_sin_solapamiento
+            EXCLUDE USING gist (espacio_id WITH =, periodo WITH &&)
+            WHERE (estado <> 'CANCELADA');
+    END IF;
+END
+$$@@
+
+-- Reservas PENDIENTE anteriores a las retenciones (sin vencimiento): se les asigna el plazo
+-- de una retención desde su creación, para que el barrido también las alcance
+UPDATE reservas SET expira_en = fecha_creacion + interval '15 minutes'
+    WHERE estado = 'PENDIENTE' AND expira_en IS NULL@@
+
+-- Retenciones pendientes por vencimiento: el barrido de vencidas sólo lee este índice
+CREATE INDEX IF NOT EXISTS idx_reservas_retenciones_vencimiento
+    ON reservas (expira_en) WHERE estado = 'PENDIENTE'@@
+
+-- Bandeja de salida / cola de trabajos: el despachador sólo lee los eventos pendientes,
+-- por prioridad y próximo intento
+DROP INDEX IF EXISTS idx_eventos_salida_pendientes@@
+
+CREATE INDEX IF NOT EXISTS idx_eventos_salida_cola
+    ON eventos_salida (prioridad DESC, proximo_intento, id) WHERE estado = 'PENDIENTE'@@
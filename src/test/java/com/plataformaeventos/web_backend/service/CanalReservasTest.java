@@ -0,0 +1,109 @@
+package com.plataformaeventos.web_backend.service;
+
+import com.plataformaeventos.web_backend.event.ReservaModificadaEvent;
+import com.plataformaeventos.web_backend.model.Reserva;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CanalReservasTest {
+
+    private static final String NODO = "3f0c2a8e-5b1d-4c7e-9a60-1d2e3f405162";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CanalReservas canal = new CanalReservas(jdbcTemplate, null, null, null, null);
+
+    @AfterEach
+    void limpiarTransaccion() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void modificar(long desde, long hasta) {
+        LongStream.rangeClosed(desde, hasta).forEach(id ->
+                canal.alModificarReserva(new ReservaModificadaEvent(Reserva.builder().id(id).build())));
+    }
+
+    private List<List<Long>> avisosEnviados(int cantidad) {
+        ArgumentCaptor<Object> contenido = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(cantidad)).queryForList(eq("SELECT pg_notify(?, ?)"), eq(CanalReservas.CANAL), contenido.capture());
+        return contenido.getAllValues().stream()
+                .map(aviso -> CanalReservas.decodificar((String) aviso).reservaIds())
+                .toList();
+    }
+
+    private static void hacerCommit() {
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.beforeCommit(false));
+        sincronizaciones.forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    @Test
+    void lasReservasDeUnaTransaccionSeAvisanJuntasAlHacerCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        modificar(1, 3);
+        verifyNoInteractions(jdbcTemplate);
+
+        hacerCommit();
+        assertEquals(List.of(List.of(1L, 2L, 3L)), avisosEnviados(1));
+        assertNull(TransactionSynchronizationManager.getResource(canal));
+    }
+
+    @Test
+    void unLoteGrandeSeReparteEnVariosAvisos() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        modificar(1, 2 * CanalReservas.RESERVAS_POR_AVISO + 100);
+        hacerCommit();
+
+        List<List<Long>> avisos = avisosEnviados(3);
+        assertEquals(List.of(CanalReservas.RESERVAS_POR_AVISO, CanalReservas.RESERVAS_POR_AVISO, 100),
+                avisos.stream().map(List::size).toList());
+        assertEquals(1L, avisos.get(0).get(0));
+        assertEquals(2L * CanalReservas.RESERVAS_POR_AVISO + 100, avisos.get(2).get(99));
+    }
+
+    @Test
+    void fueraDeUnaTransaccionSeAvisaEnElMomento() {
+        modificar(7, 7);
+
+        assertEquals(List.of(List.of(7L)), avisosEnviados(1));
+    }
+
+    @Test
+    void elAvisoLlevaElNodoYLasReservas() {
+        String contenido = CanalReservas.codificar(NODO, List.of(10L, 11L, 42L));
+
+        assertEquals(NODO + "|10,11,42", contenido);
+        assertEquals(new CanalReservas.Aviso(NODO, List.of(10L, 11L, 42L)), CanalReservas.decodificar(contenido));
+    }
+
+    @Test
+    void unAvisoSinReservasSeDecodificaVacio() {
+        assertEquals(new CanalReservas.Aviso(NODO, List.of()), CanalReservas.decodificar(NODO + "|"));
+    }
+
+    @Test
+    void losAvisosMalFormadosSeDescartan() {
+        assertNull(CanalReservas.decodificar(null));
+        assertNull(CanalReservas.decodificar("sin-separador"));
+        assertNull(CanalReservas.decodificar("|1,2"));
+        assertNull(CanalReservas.decodificar(NODO + "|1,x"));
+    }
+}
@@ -0,0 +1,92 @@
+package com.plataformaeventos.web_backend.service;
+
+import com.plataformaeventos.web_backend.dto.EspacioListadoResponse;
+import com.plataformaeventos.web_backend.dto.ModoBusqueda;
+import com.plataformaeventos.web_backend.model.EstadoEspacio;
+import com.plataformaeventos.web_backend.model.VisibilidadDireccion;
+import com.plataformaeventos.web_backend.repository.EspacioListadoFila;
+import com.plataformaeventos.web_backend.repository.EspacioRepository;
+import com.plataformaeventos.web_backend.service.indice.IndiceBusquedaEspacios;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EspacioServiceTest {
+
+    @Mock
+    private EspacioRepository espacioRepository;
+
+    @Mock
+    private IndiceBusquedaEspacios indiceBusquedaEspacios;
+
+    @InjectMocks
+    private EspacioService espacioService;
+
+    private static List<Long> ids(long desde, long hasta) {
+        return LongStream.range(desde, hasta).boxed().toList();
+    }
+
+    private static List<EspacioListadoFila> filas(List<Long> ids) {
+        return ids.stream()
+                .map(id -> new EspacioListadoFila(id, "Salón " + id, "SALON", BigDecimal.TEN, "HORA", 50,
+                        null, null, EstadoEspacio.PUBLICADO, VisibilidadDireccion.DESPUES_DE_CONFIRMAR, 1L, LocalDateTime.now(), null))
+                .toList();
+    }
+
+    private Page<EspacioListadoResponse> buscar(List<Long> candidatos, Pageable pageable, List<Long> filasPagina, long totalFiltrado) {
+        when(indiceBusquedaEspacios.buscar("salon")).thenReturn(candidatos);
+        when(espacioRepository.findListado(any(), eq(candidatos), eq(Set.of()), eq(pageable)))
+                .thenReturn(new PageImpl<>(filas(filasPagina), pageable, totalFiltrado));
+        return espacioService.listarEspacios(null, "salon", ModoBusqueda.TEXTO, null, null, null, null, null, null, null, null, pageable);
+    }
+
+    @Test
+    void laBusquedaPasaTodosLosCandidatosALaBaseYRespetaSuOrden() {
+        List<Long> candidatos = ids(1, 2000);
+        Pageable pageable = PageRequest.of(0, 3);
+
+        Page<EspacioListadoResponse> pagina = buscar(candidatos, pageable, List.of(7L, 3L, 9L), 40);
+
+        assertEquals(List.of(7L, 3L, 9L), pagina.getContent().stream().map(EspacioListadoResponse::getId).toList());
+        assertEquals(40, pagina.getTotalElements());
+    }
+
+    @Test
+    void laCotaSeAplicaSobreElListadoYaFiltrado() {
+        Pageable pageable = PageRequest.of(12, 40); // Filas 480 a 519
+
+        Page<EspacioListadoResponse> pagina = buscar(ids(1, 2000), pageable, ids(1000, 1040), 650);
+
+        assertEquals(ids(1000, 1020), pagina.getContent().stream().map(EspacioListadoResponse::getId).toList());
+        assertEquals(EspacioService.MAX_RESULTADOS_BUSQUEDA, pagina.getTotalElements());
+        assertEquals(13, pagina.getTotalPages());
+    }
+
+    @Test
+    void lasPaginasPosterioresALaCotaQuedanVacias() {
+        Pageable pageable = PageRequest.of(13, 40); // Filas 520 a 559
+
+        Page<EspacioListadoResponse> pagina = buscar(ids(1, 2000), pageable, ids(1000, 1040), 650);
+
+        assertEquals(List.of(), pagina.getContent());
+        assertEquals(EspacioService.MAX_RESULTADOS_BUSQUEDA, pagina.getTotalElements());
+    }
+}
@@ -0,0 +1,202 @@
+package com.plataformaeventos.web_backend.service;
+
+import com.plataformaeventos.web_backend.dto.ReservaCrearRequest;
+import com.plataformaeventos.web_backend.dto.ReservaResponse;
+import com.plataformaeventos.web_backend.event.ReservaModificadaEvent;
+import com.plataformaeventos.web_backend.exception.ConflictoReservaException;
+import com.plataformaeventos.web_backend.model.Espacio;
+import com.plataformaeventos.web_backend.model.EstadoEspacio;
+import com.plataformaeventos.web_backend.model.EstadoReserva;
+import com.plataformaeventos.web_backend.model.Reserva;
+import com.plataformaeventos.web_backend.repository.EspacioRepository;
+import com.plataformaeventos.web_backend.repository.ReservaRepository;
+import com.plataformaeventos.web_backend.service.precio.Cotizacion;
+import com.plataformaeventos.web_backend.service.precio.CotizadorPrecios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservaServiceTest {
+
+    private static final Long ESPACIO = 5L;
+    private static final LocalDateTime INICIO = LocalDateTime.now().plusDays(20).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    private static final LocalDateTime FIN = INICIO.plusHours(4);
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private EspacioRepository espacioRepository;
+
+    @Mock
+    private CoordinadorReservas coordinadorReservas;
+
+    @Mock
+    private CotizadorPrecios cotizadorPrecios;
+
+    @Mock
+    private RegistroIdempotencia registroIdempotencia;
+
+    @Mock
+    private BandejaSalida bandejaSalida;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private ReservaService reservaService;
+
+    private Espacio espacio;
+
+    @BeforeEach
+    void prepararEspacio() {
+        espacio = Espacio.builder().id(ESPACIO).estado(EstadoEspacio.PUBLICADO).unidadPrecio("HORA").build();
+        // lenient: el barrido de retenciones no pasa por el espacio ni la cotización
+        lenient().when(espacioRepository.findById(ESPACIO)).thenReturn(Optional.of(espacio));
+        lenient().when(cotizadorPrecios.cotizar(espacio, INICIO, FIN)).thenReturn(
+                new Cotizacion(List.of(), BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, null, BigDecimal.TEN));
+    }
+
+    private static ReservaCrearRequest solicitudDeInvitado() {
+        ReservaCrearRequest request = new ReservaCrearRequest();
+        request.setEspacioId(ESPACIO);
+        request.setFechaInicio(INICIO);
+        request.setFechaFin(FIN);
+        request.setNombreInvitado("Ana");
+        request.setEmailInvitado("ana@example.com");
+        return request;
+    }
+
+    private static DataIntegrityViolationException violacion(String sqlState) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new RuntimeException(new SQLException("ERROR: restricción violada", sqlState)));
+    }
+
+    @Test
+    void laReservaSeInsertaSinConsultaPreviaDeSolapamientos() {
+        when(reservaRepository.saveAllAndFlush(anyList())).thenAnswer(invocacion -> {
+            List<Reserva> reservas = invocacion.getArgument(0);
+            reservas.get(0).setId(100L);
+            return reservas;
+        });
+
+        ReservaResponse respuesta = reservaService.crearReserva(solicitudDeInvitado());
+
+        assertEquals(100L, respuesta.getId());
+        assertEquals(EstadoReserva.CONFIRMADA, respuesta.getEstado());
+        verify(coordinadorReservas).bloquearEspacio(ESPACIO);
+        verify(reservaRepository).saveAllAndFlush(anyList());
+        verifyNoMoreInteractions(reservaRepository);
+        verify(eventPublisher).publishEvent(any(ReservaModificadaEvent.class));
+    }
+
+    @Test
+    void laViolacionDeLaRestriccionDeExclusionEsUnConflicto() {
+        when(reservaRepository.saveAllAndFlush(anyList())).thenThrow(violacion("23P01"));
+
+        assertThrows(ConflictoReservaException.class, () -> reservaService.crearReserva(solicitudDeInvitado()));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void otrasViolacionesDeIntegridadNoSeTraducen() {
+        when(reservaRepository.saveAllAndFlush(anyList())).thenThrow(violacion("23505"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> reservaService.crearReserva(solicitudDeInvitado()));
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void elBarridoPublicaUnEventoPorCadaRetencionVencida() {
+        when(reservaRepository.cancelarRetencionesVencidas(any(LocalDateTime.class), eq(200))).thenReturn(List.of(1L, 2L));
+        when(reservaRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(
+                Reserva.builder().id(1L).estado(EstadoReserva.CANCELADA).build(),
+                Reserva.builder().id(2L).estado(EstadoReserva.CANCELADA).build()));
+
+        assertEquals(2, reservaService.vencerRetenciones(200));
+
+        verify(eventPublisher, times(2)).publishEvent(any(ReservaModificadaEvent.class));
+    }
+
+    @Test
+    void sinRetencionesVencidasNoSePublicaNada() {
+        when(reservaRepository.cancelarRetencionesVencidas(any(LocalDateTime.class), eq(200))).thenReturn(List.of());
+
+        assertEquals(0, reservaService.vencerRetenciones(200));
+
+        verify(reservaRepository, never()).findAllById(anyList());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private void respuestaPrevia(Optional<ReservaResponse> primera, Optional<ReservaResponse> segunda) {
+        when(registroIdempotencia.buscar(anyString(), eq("clave-1"), any(), any(), eq(ReservaResponse.class)))
+                .thenReturn(primera, segunda);
+    }
+
+    @Test
+    void unaClaveYaUsadaDevuelveLaRespuestaAnteriorSinReservarNiCobrar() {
+        ReservaResponse anterior = ReservaResponse.builder().id(100L).estado(EstadoReserva.CONFIRMADA).build();
+        respuestaPrevia(Optional.of(anterior), Optional.empty());
+
+        assertEquals(anterior, reservaService.crearReserva(solicitudDeInvitado(), "clave-1"));
+
+        verifyNoInteractions(coordinadorReservas, reservaRepository, bandejaSalida, eventPublisher);
+        verify(registroIdempotencia, never()).guardar(anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void unEnvioSimultaneoConLaMismaClaveEncuentraLaRespuestaTrasElBloqueo() {
+        ReservaResponse anterior = ReservaResponse.builder().id(100L).estado(EstadoReserva.CONFIRMADA).build();
+        respuestaPrevia(Optional.empty(), Optional.of(anterior));
+
+        assertEquals(anterior, reservaService.crearReserva(solicitudDeInvitado(), "clave-1"));
+
+        verify(coordinadorReservas).bloquearClave("clave-1");
+        verify(coordinadorReservas, never()).bloquearEspacio(any());
+        verifyNoInteractions(reservaRepository, bandejaSalida, eventPublisher);
+        verify(registroIdempotencia, never()).guardar(anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void laPrimeraVezConUnaClaveSeGuardaLaRespuesta() {
+        respuestaPrevia(Optional.empty(), Optional.empty());
+        when(reservaRepository.saveAllAndFlush(anyList())).thenAnswer(invocacion -> {
+            List<Reserva> reservas = invocacion.getArgument(0);
+            reservas.get(0).setId(100L);
+            return reservas;
+        });
+
+        ReservaResponse respuesta = reservaService.crearReserva(solicitudDeInvitado(), "clave-1");
+
+        verify(registroIdempotencia).guardar(anyString(), eq("clave-1"), any(), any(), eq(respuesta));
+        assertEquals(100L, respuesta.getId());
+    }
+}
@@ -0,0 +1,115 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import com.plataformaeventos.web_backend.service.indice.CalendarioOcupacion.Tramo;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalendarioOcupacionTest {
+
+    private static final Long ESPACIO = 1L;
+    private static final LocalDate ORIGEN = LocalDate.of(2026, 3, 2); // Lunes
+    private static final LocalDate FIN_HORIZONTE = ORIGEN.plusDays(CalendarioOcupacion.HORIZONTE_DIAS - 1);
+
+    private final CalendarioOcupacion calendario = new CalendarioOcupacion(ORIGEN);
+
+    @Test
+    void guardaLosDiasConAmbosExtremosIncluidos() {
+        calendario.guardar(10L, ESPACIO, ORIGEN.plusDays(3), ORIGEN.plusDays(5));
+
+        assertEquals(List.of(ORIGEN.plusDays(3), ORIGEN.plusDays(4), ORIGEN.plusDays(5)),
+                calendario.diasOcupados(ESPACIO, ORIGEN, FIN_HORIZONTE));
+    }
+
+    @Test
+    void losDiasAnterioresAlOrigenSeDescartan() {
+        calendario.guardar(10L, ESPACIO, ORIGEN.minusDays(2), ORIGEN.plusDays(1));
+
+        assertEquals(List.of(ORIGEN, ORIGEN.plusDays(1)), calendario.diasOcupados(ESPACIO, ORIGEN.minusDays(5), FIN_HORIZONTE));
+        assertFalse(calendario.cubre(ORIGEN.minusDays(1), ORIGEN));
+    }
+
+    @Test
+    void losDiasFueraDelHorizonteSeRecortan() {
+        calendario.guardar(10L, ESPACIO, FIN_HORIZONTE, FIN_HORIZONTE.plusDays(3));
+
+        assertEquals(List.of(FIN_HORIZONTE), calendario.diasOcupados(ESPACIO, FIN_HORIZONTE, FIN_HORIZONTE.plusDays(3)));
+        assertTrue(calendario.cubre(ORIGEN, FIN_HORIZONTE));
+        assertFalse(calendario.cubre(ORIGEN, FIN_HORIZONTE.plusDays(1)));
+    }
+
+    @Test
+    void alCorrerElOrigenLosIndicesSeRecalculan() {
+        LocalDate nuevoOrigen = ORIGEN.plusDays(7);
+        CalendarioOcupacion nuevo = new CalendarioOcupacion(nuevoOrigen);
+        nuevo.guardar(10L, ESPACIO, ORIGEN.plusDays(5), ORIGEN.plusDays(9));
+        calendario.guardar(99L, ESPACIO, ORIGEN, ORIGEN);
+
+        calendario.reemplazarPor(nuevo);
+
+        // El día 0 pasa a ser el nuevo origen: los días anteriores ya no existen
+        assertEquals(List.of(nuevoOrigen, nuevoOrigen.plusDays(1), nuevoOrigen.plusDays(2)),
+                calendario.diasOcupados(ESPACIO, ORIGEN, nuevoOrigen.plusDays(30)));
+        assertFalse(calendario.cubre(ORIGEN, nuevoOrigen));
+        assertTrue(calendario.cubre(nuevoOrigen, nuevoOrigen.plusDays(CalendarioOcupacion.HORIZONTE_DIAS - 1)));
+
+        // Las altas posteriores usan el nuevo origen
+        calendario.guardar(11L, ESPACIO, nuevoOrigen.plusDays(20), nuevoOrigen.plusDays(20));
+        assertEquals(List.of(nuevoOrigen.plusDays(20)),
+                calendario.diasOcupados(ESPACIO, nuevoOrigen.plusDays(10), nuevoOrigen.plusDays(30)));
+    }
+
+    @Test
+    void cancelarUnaDeDosReservasDelMismoDiaNoLiberaElDia() {
+        calendario.guardar(10L, ESPACIO, ORIGEN.plusDays(1), ORIGEN.plusDays(1));
+        calendario.guardar(11L, ESPACIO, ORIGEN.plusDays(1), ORIGEN.plusDays(2));
+
+        calendario.eliminar(11L);
+        assertEquals(List.of(ORIGEN.plusDays(1)), calendario.diasOcupados(ESPACIO, ORIGEN, FIN_HORIZONTE));
+
+        calendario.eliminar(10L);
+        assertEquals(List.of(), calendario.diasOcupados(ESPACIO, ORIGEN, FIN_HORIZONTE));
+        assertEquals(0, calendario.cantidadEspacios());
+    }
+
+    @Test
+    void tramosAgrupanDiasConsecutivosYSeRecortanALaVentana() {
+        calendario.guardar(10L, ESPACIO, ORIGEN.plusDays(1), ORIGEN.plusDays(3));
+        calendario.guardar(11L, ESPACIO, ORIGEN.plusDays(4), ORIGEN.plusDays(4));
+        calendario.guardar(12L, ESPACIO, ORIGEN.plusDays(8), ORIGEN.plusDays(12));
+
+        assertEquals(List.of(
+                new Tramo(ORIGEN.plusDays(2), ORIGEN.plusDays(4)),
+                new Tramo(ORIGEN.plusDays(8), ORIGEN.plusDays(10))
+        ), calendario.tramosOcupados(ESPACIO, ORIGEN.plusDays(2), ORIGEN.plusDays(10)));
+    }
+
+    @Test
+    void primeraVentanaLibreRespetaLosDiasDeInicio() {
+        // Ocupado del miércoles al domingo de la primera semana
+        calendario.guardar(10L, ESPACIO, ORIGEN.plusDays(2), ORIGEN.plusDays(6));
+        Set<DayOfWeek> viernes = EnumSet.of(DayOfWeek.FRIDAY);
+
+        assertEquals(ORIGEN.plusDays(11), calendario.primeraVentanaLibre(ESPACIO, ORIGEN, ORIGEN.plusDays(30), 3, viernes));
+        assertEquals(ORIGEN, calendario.primeraVentanaLibre(ESPACIO, ORIGEN, ORIGEN.plusDays(30), 2, EnumSet.allOf(DayOfWeek.class)));
+        assertNull(calendario.primeraVentanaLibre(ESPACIO, ORIGEN, ORIGEN.plusDays(6), 3, viernes));
+    }
+
+    @Test
+    void espaciosSinVentanaLibreSoloIncluyeLosOcupados() {
+        calendario.guardar(10L, ESPACIO, ORIGEN, ORIGEN.plusDays(6));
+        calendario.guardar(11L, 2L, ORIGEN, ORIGEN);
+
+        assertEquals(Set.of(ESPACIO),
+                calendario.espaciosSinVentanaLibre(ORIGEN, ORIGEN.plusDays(6), 2, EnumSet.allOf(DayOfWeek.class)));
+    }
+}
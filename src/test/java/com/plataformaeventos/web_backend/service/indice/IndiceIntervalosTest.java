@@ -0,0 +1,83 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import com.plataformaeventos.web_backend.service.indice.IndiceIntervalos.Intervalo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceIntervalosTest {
+
+    private static final Long ESPACIO = 1L;
+    private static final LocalDateTime DIEZ = LocalDateTime.of(2026, 3, 10, 10, 0);
+    private static final LocalDateTime DOCE = DIEZ.plusHours(2);
+
+    private final IndiceIntervalos indice = IndiceIntervalos.construir(List.of(
+            new Intervalo(100L, ESPACIO, DIEZ, DOCE)
+    ));
+
+    @Test
+    void rangosQueSoloSeTocanNoSeSolapan() {
+        assertFalse(indice.haySolapamiento(ESPACIO, DIEZ.minusHours(2), DIEZ));
+        assertFalse(indice.haySolapamiento(ESPACIO, DOCE, DOCE.plusHours(2)));
+    }
+
+    @Test
+    void rangosQueCompartenUnMinutoSeSolapan() {
+        assertTrue(indice.haySolapamiento(ESPACIO, DIEZ.minusHours(2), DIEZ.plusMinutes(1)));
+        assertTrue(indice.haySolapamiento(ESPACIO, DOCE.minusMinutes(1), DOCE.plusHours(2)));
+    }
+
+    @Test
+    void rangoContenidoYRangoQueContieneSeSolapan() {
+        assertTrue(indice.haySolapamiento(ESPACIO, DIEZ.plusMinutes(30), DIEZ.plusMinutes(90)));
+        assertTrue(indice.haySolapamiento(ESPACIO, DIEZ.minusDays(1), DOCE.plusDays(1)));
+        assertTrue(indice.haySolapamiento(ESPACIO, DIEZ, DOCE));
+    }
+
+    @Test
+    void otroEspacioNoSeSolapa() {
+        assertFalse(indice.haySolapamiento(2L, DIEZ, DOCE));
+    }
+
+    @Test
+    void intervaloLargoAnteriorSeDetectaAunqueHayaOtrosEnMedio() {
+        // El primero termina después de que empiezan los siguientes: el máximo fin acumulado lo cubre
+        IndiceIntervalos conLargo = IndiceIntervalos.construir(List.of(
+                new Intervalo(1L, ESPACIO, DIEZ, DIEZ.plusDays(3)),
+                new Intervalo(2L, ESPACIO, DIEZ.plusHours(1), DIEZ.plusHours(2)),
+                new Intervalo(3L, ESPACIO, DIEZ.plusHours(3), DIEZ.plusHours(4))
+        ));
+
+        assertTrue(conLargo.haySolapamiento(ESPACIO, DIEZ.plusDays(2), DIEZ.plusDays(2).plusHours(1)));
+        assertFalse(conLargo.haySolapamiento(ESPACIO, DIEZ.plusDays(3), DIEZ.plusDays(4)));
+    }
+
+    @Test
+    void guardarReemplazaElIntervaloDeLaMismaReserva() {
+        indice.guardar(new Intervalo(100L, ESPACIO, DIEZ.plusDays(1), DOCE.plusDays(1)));
+
+        assertFalse(indice.haySolapamiento(ESPACIO, DIEZ, DOCE));
+        assertTrue(indice.haySolapamiento(ESPACIO, DIEZ.plusDays(1), DOCE.plusDays(1)));
+    }
+
+    @Test
+    void eliminarLiberaElRango() {
+        indice.eliminar(100L);
+
+        assertFalse(indice.haySolapamiento(ESPACIO, DIEZ, DOCE));
+    }
+
+    @Test
+    void reemplazarPorCambiaTodoElContenido() {
+        indice.reemplazarPor(IndiceIntervalos.construir(List.of(
+                new Intervalo(200L, 2L, DIEZ, DOCE)
+        )));
+
+        assertFalse(indice.haySolapamiento(ESPACIO, DIEZ, DOCE));
+        assertTrue(indice.haySolapamiento(2L, DIEZ, DOCE));
+    }
+}
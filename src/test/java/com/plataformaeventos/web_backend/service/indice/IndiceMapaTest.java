@@ -0,0 +1,90 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import com.plataformaeventos.web_backend.service.indice.IndiceMapa.Cluster;
+import com.plataformaeventos.web_backend.service.indice.IndiceMapa.Punto;
+import com.plataformaeventos.web_backend.service.indice.IndiceMapa.Rectangulo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceMapaTest {
+
+    private static final Rectangulo MUNDO = new Rectangulo(-90, -180, 90, 180);
+
+    private final IndiceMapa indice = new IndiceMapa();
+
+    private static Set<Long> ids(List<Punto> puntos) {
+        return puntos.stream().map(Punto::id).collect(Collectors.toSet());
+    }
+
+    @Test
+    void losBordesDelMapaCaenEnLosTilesExtremos() {
+        indice.guardar(new Punto(1L, 85.0, 180.0, 10.0));
+        indice.guardar(new Punto(2L, -85.0, -180.0, 20.0));
+        indice.guardar(new Punto(3L, 89.9, -180.0, null)); // Más allá del límite de Web Mercator
+        indice.guardar(new Punto(4L, -90.0, 180.0, null));
+
+        assertEquals(Set.of(1L, 2L, 3L, 4L), ids(indice.pines(MUNDO, 10)));
+
+        // Nivel 1: 2×2 tiles, uno por esquina
+        assertEquals(4, indice.clusters(MUNDO, 1).size());
+        assertEquals(Set.of(1L), ids(indice.pines(new Rectangulo(80, 170, 85.1, 180), 10)));
+        assertEquals(Set.of(2L), ids(indice.pines(new Rectangulo(-85.1, -180, -80, -170), 10)));
+        assertEquals(1, indice.clusters(new Rectangulo(0.1, 0.1, 90, 180), 1).size());
+        assertEquals(1, indice.clusters(new Rectangulo(-90, -180, -0.1, -0.1), 1).size());
+    }
+
+    @Test
+    void enElNivelMaximoLosExtremosSiguenSiendoTilesValidos() {
+        indice.guardar(new Punto(1L, 85.0511, 180.0, null));
+        indice.guardar(new Punto(2L, -85.0511, -180.0, null));
+
+        List<Cluster> clusters = indice.clusters(MUNDO, IndiceMapa.NIVEL_MAXIMO);
+        assertEquals(2, clusters.size());
+        assertTrue(clusters.stream().allMatch(cluster -> cluster.cantidad() == 1));
+    }
+
+    @Test
+    void nivelCeroAgrupaTodoConCentroideYPrecioMinimo() {
+        indice.guardar(new Punto(1L, -34.0, -58.0, 300.0));
+        indice.guardar(new Punto(2L, -32.0, -60.0, 100.0));
+        indice.guardar(new Punto(3L, -33.0, -59.0, null));
+
+        List<Cluster> clusters = indice.clusters(MUNDO, 0);
+        assertEquals(1, clusters.size());
+        Cluster cluster = clusters.get(0);
+        assertEquals(3, cluster.cantidad());
+        assertEquals(-33.0, cluster.latitud(), 1e-9);
+        assertEquals(-59.0, cluster.longitud(), 1e-9);
+        assertEquals(100.0, cluster.precioMinimo());
+    }
+
+    @Test
+    void eliminarYGuardarDeNuevoActualizanLosAgregados() {
+        indice.guardar(new Punto(1L, -34.0, -58.0, 300.0));
+        indice.guardar(new Punto(2L, -32.0, -60.0, 100.0));
+
+        indice.eliminar(2L);
+        assertEquals(300.0, indice.clusters(MUNDO, 0).get(0).precioMinimo());
+
+        // Mover el punto al otro hemisferio lo saca de su tile anterior
+        indice.guardar(new Punto(1L, 40.0, 100.0, 300.0));
+        assertEquals(1, indice.clusters(new Rectangulo(0.1, 0.1, 90, 180), 1).size());
+        assertEquals(0, indice.clusters(new Rectangulo(-90, -180, -0.1, -0.1), 1).size());
+    }
+
+    @Test
+    void pinesRespetaElLimiteYElRectangulo() {
+        for (long id = 1; id <= 5; id++) {
+            indice.guardar(new Punto(id, -34.0 + id * 0.001, -58.0, null));
+        }
+
+        assertEquals(3, indice.pines(MUNDO, 3).size());
+        assertEquals(Set.of(1L, 2L), ids(indice.pines(new Rectangulo(-34.0, -58.1, -33.9975, -57.9), 10)));
+    }
+}
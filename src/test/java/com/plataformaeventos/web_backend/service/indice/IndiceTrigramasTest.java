@@ -0,0 +1,80 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndiceTrigramasTest {
+
+    private final IndiceTrigramas indice = new IndiceTrigramas();
+
+    @Test
+    void trigramasUsanElRellenoDePgTrgm() {
+        assertEquals(Set.of("  s", " so", "sol", "ol "), IndiceTrigramas.trigramas("sol"));
+    }
+
+    @Test
+    void toleraErroresDeTipeo() {
+        indice.indexar(1L, List.of("Quincho con parrilla"));
+        indice.indexar(2L, List.of("Salón de fiestas"));
+
+        assertEquals(List.of(1L), indice.buscar("kincho", 10));
+        assertEquals(List.of(1L), indice.buscar("parrila", 10));
+    }
+
+    @Test
+    void ignoraTildesYMayusculas() {
+        indice.indexar(1L, List.of("Salón de fiestas"));
+
+        assertEquals(List.of(1L), indice.buscar("SALON", 10));
+    }
+
+    @Test
+    void palabrasSinTrigramasEnComunNoCoinciden() {
+        indice.indexar(1L, List.of("Quincho con parrilla"));
+
+        assertEquals(List.of(), indice.buscar("terraza", 10));
+        assertEquals(List.of(), indice.buscar("de la", 10)); // Sólo palabras vacías
+    }
+
+    @Test
+    void ordenaPorLaSumaDeSimilitudesDeCadaPalabra() {
+        indice.indexar(1L, List.of("Quincho"));
+        indice.indexar(2L, List.of("Quincho con pileta"));
+        indice.indexar(3L, List.of("Pileta climatizada"));
+
+        // 2 coincide con ambas palabras; 1 y 3 con una sola (a igual puntaje, el id mayor primero)
+        assertEquals(List.of(2L, 3L, 1L), indice.buscar("quincho pileta", 10));
+        assertEquals(List.of(2L), indice.buscar("kincho pileta", 1));
+    }
+
+    @Test
+    void eliminarSacaLasPalabrasDelVocabulario() {
+        indice.indexar(1L, List.of("Quincho"));
+        indice.indexar(2L, List.of("Quincho con pileta"));
+
+        indice.eliminar(2L);
+        assertEquals(List.of(), indice.buscar("pileta", 10));
+        assertEquals(List.of(1L), indice.buscar("quincho", 10));
+
+        // Reindexar reemplaza las palabras anteriores del documento
+        indice.indexar(1L, List.of("Terraza"));
+        assertEquals(List.of(), indice.buscar("quincho", 10));
+        assertEquals(List.of(1L), indice.buscar("terraza", 10));
+    }
+
+    @Test
+    void reemplazarPorCambiaTodoElContenido() {
+        indice.indexar(1L, List.of("Quincho"));
+        IndiceTrigramas nuevo = new IndiceTrigramas();
+        nuevo.indexar(2L, List.of("Terraza"));
+
+        indice.reemplazarPor(nuevo);
+
+        assertEquals(List.of(), indice.buscar("quincho", 10));
+        assertEquals(List.of(2L), indice.buscar("terraza", 10));
+    }
+}
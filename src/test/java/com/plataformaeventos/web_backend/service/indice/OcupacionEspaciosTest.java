@@ -0,0 +1,89 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import com.plataformaeventos.web_backend.event.ReservaModificadaEvent;
+import com.plataformaeventos.web_backend.model.Espacio;
+import com.plataformaeventos.web_backend.model.EstadoReserva;
+import com.plataformaeventos.web_backend.model.Reserva;
+import com.plataformaeventos.web_backend.repository.ReservaIntervaloProyeccion;
+import com.plataformaeventos.web_backend.repository.ReservaRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OcupacionEspaciosTest {
+
+    private static final Long ESPACIO = 7L;
+    private static final LocalDate DIA = LocalDate.now().plusDays(10);
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @InjectMocks
+    private OcupacionEspacios ocupacion;
+
+    private void reservar(Long id, LocalDateTime inicio, LocalDateTime fin) {
+        Reserva reserva = Reserva.builder()
+                .id(id)
+                .espacio(Espacio.builder().id(ESPACIO).build())
+                .fechaInicio(inicio)
+                .fechaFin(fin)
+                .estado(EstadoReserva.CONFIRMADA)
+                .build();
+        ocupacion.alModificarReserva(new ReservaModificadaEvent(reserva));
+    }
+
+    @Test
+    void unDiaCompletoNoOcupaElDiaSiguiente() {
+        // Como la arma ReservaService sin horario de check-out: de medianoche a medianoche
+        reservar(1L, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay());
+
+        assertEquals(List.of(DIA), ocupacion.diasOcupados(ESPACIO, DIA.minusDays(1), DIA.plusDays(1)));
+    }
+
+    @Test
+    void unaEstadiaNocturnaOcupaAmbosDias() {
+        reservar(1L, DIA.atTime(20, 0), DIA.plusDays(1).atTime(10, 0));
+
+        assertEquals(List.of(DIA, DIA.plusDays(1)), ocupacion.diasOcupados(ESPACIO, DIA.minusDays(1), DIA.plusDays(2)));
+    }
+
+    @Test
+    void diasConsecutivosFormanUnSoloTramo() {
+        reservar(1L, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay());
+        reservar(2L, DIA.plusDays(1).atStartOfDay(), DIA.plusDays(2).atStartOfDay());
+
+        assertEquals(List.of(new CalendarioOcupacion.Tramo(DIA, DIA.plusDays(1))),
+                ocupacion.tramosOcupados(ESPACIO, DIA.minusDays(3), DIA.plusDays(3)));
+    }
+
+    @Test
+    void fueraDelCalendarioLaConsultaALaBaseUsaElMismoCriterio() {
+        LocalDate pasado = LocalDate.now().minusDays(30);
+        ReservaIntervaloProyeccion reserva = mock(ReservaIntervaloProyeccion.class);
+        when(reserva.getFechaInicio()).thenReturn(pasado.atStartOfDay());
+        when(reserva.getFechaFin()).thenReturn(pasado.plusDays(1).atStartOfDay());
+        when(reservaRepository.findIntervalosActivosEntre(eq(ESPACIO), any(), any())).thenReturn(List.of(reserva));
+
+        assertEquals(List.of(pasado), ocupacion.diasOcupados(ESPACIO, pasado, pasado.plusDays(1)));
+    }
+
+    @Test
+    void ultimoDiaOcupadoTrataElFinComoExclusivo() {
+        assertEquals(DIA, OcupacionEspacios.ultimoDiaOcupado(DIA.plusDays(1).atStartOfDay()));
+        assertEquals(DIA, OcupacionEspacios.ultimoDiaOcupado(DIA.atTime(18, 0)));
+        assertEquals(DIA, OcupacionEspacios.ultimoDiaOcupado(DIA.atTime(23, 59, 59)));
+    }
+}
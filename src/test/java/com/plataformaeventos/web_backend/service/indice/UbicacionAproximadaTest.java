@@ -0,0 +1,53 @@
+package com.plataformaeventos.web_backend.service.indice;
+
+import com.plataformaeventos.web_backend.service.indice.UbicacionAproximada.Coordenadas;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UbicacionAproximadaTest {
+
+    private final UbicacionAproximada ubicacion = new UbicacionAproximada("secreto-de-prueba");
+
+    @Test
+    void elMismoEspacioSiempreSeDesplazaIgual() {
+        Coordenadas primera = ubicacion.difuminar(42L, -34.6037, -58.3816);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(primera, ubicacion.difuminar(42L, -34.6037, -58.3816));
+        }
+        assertEquals(primera, new UbicacionAproximada("secreto-de-prueba").difuminar(42L, -34.6037, -58.3816));
+    }
+
+    @Test
+    void elDesplazamientoDependeDelEspacioYDelSecreto() {
+        Coordenadas base = ubicacion.difuminar(42L, -34.6037, -58.3816);
+
+        assertNotEquals(base, ubicacion.difuminar(43L, -34.6037, -58.3816));
+        assertNotEquals(base, new UbicacionAproximada("otro-secreto").difuminar(42L, -34.6037, -58.3816));
+    }
+
+    @Test
+    void elDesplazamientoEstaAcotadoYNuncaEsNulo() {
+        for (long id = 1; id <= 1000; id++) {
+            Coordenadas aproximada = ubicacion.difuminar(id, 10.0, 20.0);
+            double deltaLatitud = Math.abs(aproximada.latitud() - 10.0);
+            double deltaLongitud = Math.abs(aproximada.longitud() - 20.0);
+            assertTrue(deltaLatitud <= UbicacionAproximada.DESPLAZAMIENTO_MAXIMO);
+            assertTrue(deltaLongitud <= UbicacionAproximada.DESPLAZAMIENTO_MAXIMO);
+            assertTrue(deltaLatitud > 0 || deltaLongitud > 0);
+        }
+    }
+
+    @Test
+    void losPolosYElAntimeridianoNoSeDesbordan() {
+        for (long id = 1; id <= 200; id++) {
+            Coordenadas norte = ubicacion.difuminar(id, 90.0, 180.0);
+            Coordenadas sur = ubicacion.difuminar(id, -90.0, -180.0);
+            assertTrue(norte.latitud() <= 90 && norte.longitud() <= 180);
+            assertTrue(sur.latitud() >= -90 && sur.longitud() >= -180);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.plataformaeventos.web_backend.service.precio;
+
+import com.plataformaeventos.web_backend.model.CobroDeposito;
+import com.plataformaeventos.web_backend.service.precio.PlanPrecios.Rango;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlanPreciosTest {
+
+    // 2026-03-06 es viernes
+    private static final LocalDateTime VIERNES = LocalDateTime.of(2026, 3, 6, 0, 0);
+
+    private static PlanPrecios plan(String unidad, String precio, String precioFinDeSemana) {
+        return new PlanPrecios(unidad, new BigDecimal(precio), new BigDecimal(precioFinDeSemana),
+                BigDecimal.ZERO.setScale(2), BigDecimal.ZERO.setScale(2), null);
+    }
+
+    @Test
+    void porHoraDeViernesASabadoSeparaLasHorasEnLaMedianoche() {
+        Cotizacion cotizacion = plan("HORA", "100.00", "150.00")
+                .cotizar(VIERNES.withHour(22), VIERNES.plusDays(1).withHour(2));
+
+        assertEquals(List.of(
+                new Cotizacion.Linea("Horas", new BigDecimal("2.00"), new BigDecimal("100.00"), new BigDecimal("200.00")),
+                new Cotizacion.Linea("Horas de fin de semana", new BigDecimal("2.00"), new BigDecimal("150.00"), new BigDecimal("300.00"))
+        ), cotizacion.lineas());
+        assertEquals(new BigDecimal("500.00"), cotizacion.total());
+    }
+
+    @Test
+    void porHoraDeDomingoALunesVuelveAlPrecioDeSemana() {
+        Cotizacion cotizacion = plan("HORA", "100.00", "150.00")
+                .cotizar(VIERNES.plusDays(2).withHour(23), VIERNES.plusDays(3).withHour(1));
+
+        assertEquals(new BigDecimal("250.00"), cotizacion.total());
+    }
+
+    @Test
+    void porHoraConMinutosSueltos() {
+        Cotizacion cotizacion = plan("HORA", "100.00", "150.00")
+                .cotizar(VIERNES.withHour(23).withMinute(30), VIERNES.plusDays(1).withMinute(45));
+
+        // 30 min de viernes (50) + 45 min de sábado (112.50)
+        assertEquals(new BigDecimal("162.50"), cotizacion.total());
+    }
+
+    @Test
+    void porDiaCuentaSabadoYDomingoAlPrecioDeFinDeSemana() {
+        // Viernes a lunes: viernes, sábado y domingo
+        Cotizacion cotizacion = plan("DIA", "1000.00", "1500.00")
+                .cotizar(VIERNES.withHour(14), VIERNES.plusDays(3).withHour(10));
+
+        assertEquals(new BigDecimal("4000.00"), cotizacion.total());
+    }
+
+    @Test
+    void porDiaElMismoDiaCuentaComoUno() {
+        Cotizacion cotizacion = plan("DIA", "1000.00", "1500.00")
+                .cotizar(VIERNES.plusDays(1).withHour(10), VIERNES.plusDays(1).withHour(18));
+
+        assertEquals(new BigDecimal("1500.00"), cotizacion.total());
+    }
+
+    @Test
+    void porEventoUsaElDiaDeInicio() {
+        PlanPrecios plan = plan("EVENTO", "5000.00", "8000.00");
+
+        assertEquals(new BigDecimal("5000.00"), plan.cotizar(VIERNES.withHour(23), VIERNES.plusDays(1).withHour(3)).total());
+        assertEquals(new BigDecimal("8000.00"), plan.cotizar(VIERNES.plusDays(1).withHour(20), VIERNES.plusDays(2).withHour(2)).total());
+    }
+
+    @Test
+    void sinPrecioDeFinDeSemanaHayUnaSolaLinea() {
+        Cotizacion cotizacion = plan("HORA", "100.00", "100.00")
+                .cotizar(VIERNES.withHour(22), VIERNES.plusDays(1).withHour(2));
+
+        assertEquals(1, cotizacion.lineas().size());
+        assertEquals(new BigDecimal("400.00"), cotizacion.total());
+    }
+
+    @Test
+    void variosRangosCobranLimpiezaYDepositoUnaSolaVez() {
+        PlanPrecios plan = new PlanPrecios("DIA", new BigDecimal("1000.00"), new BigDecimal("1000.00"),
+                new BigDecimal("300.00"), new BigDecimal("2000.00"), CobroDeposito.PLATAFORMA);
+
+        Cotizacion cotizacion = plan.cotizar(List.of(
+                new Rango(VIERNES.minusDays(3), VIERNES.minusDays(2)),
+                new Rango(VIERNES.minusDays(1), VIERNES)
+        ));
+
+        assertEquals(new BigDecimal("2000.00"), cotizacion.alquiler());
+        assertEquals(new BigDecimal("4300.00"), cotizacion.total());
+    }
+
+    @Test
+    void depositoEnEfectivoNoSeSumaAlTotal() {
+        PlanPrecios plan = new PlanPrecios("DIA", new BigDecimal("1000.00"), new BigDecimal("1000.00"),
+                BigDecimal.ZERO.setScale(2), new BigDecimal("2000.00"), CobroDeposito.EFECTIVO);
+
+        assertEquals(new BigDecimal("1000.00"), plan.cotizar(VIERNES.minusDays(1), VIERNES).total());
+    }
+}